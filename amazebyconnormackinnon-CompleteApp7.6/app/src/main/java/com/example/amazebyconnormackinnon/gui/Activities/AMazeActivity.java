@@ -21,6 +21,8 @@ public class AMazeActivity extends AppCompatActivity {
     //0 = DFS 1= Boruvka 2 = Prim
     private int algorithm = 0;
     private int difficulty = 1;
+    //seed for the next new maze, its maze is pregenerated while the user is on this screen
+    private int seed = (int)(Math.random()*(10000));
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -65,28 +67,47 @@ public class AMazeActivity extends AppCompatActivity {
                 difficulty = seekBar.getProgress();
                 //Toast.makeText(AMazeActivity.this, "Difficulty " + difficulty, Toast.LENGTH_SHORT).show();
                 Log.v("Difficulty Meter", "Difficulty Updated");
+                pregenerate();
             }
         });
 
     }
+    @Override
+    protected void onResume() {
+        super.onResume();
+        pregenerate();
+    }
+
     //sets the correct algorithm
     private void dfs(){algorithm=0;
         //runOnUiThread(() -> Toast.makeText(AMazeActivity.this, "Algorithm: DFS", Toast.LENGTH_SHORT).show());
-        Log.v("algorithm", "DFS");}
+        Log.v("algorithm", "DFS");
+        pregenerate();}
     private void boruvka(){algorithm=1;
         //runOnUiThread(() -> Toast.makeText(AMazeActivity.this, "Algorithm: Boruvka", Toast.LENGTH_SHORT).show());
-        Log.v("algorithm", "Boruvka");}
+        Log.v("algorithm", "Boruvka");
+        pregenerate();}
     private void prim(){algorithm=2;
         //runOnUiThread(() -> Toast.makeText(AMazeActivity.this, "Algorithm: Prim", Toast.LENGTH_SHORT).show());
-        Log.v("algorithm", "Prim");}
+        Log.v("algorithm", "Prim");
+        pregenerate();}
+
+    /** Starts building the maze for the current selection and seed in the background
+     * such that it is ready or well under way when the user presses explore
+     */
+    private void pregenerate(){
+        GeneratingActivity.PREGENERATOR.pregenerate(GeneratingActivity.createOrder(seed, algorithm, rooms, difficulty));
+    }
 
 
     /** Passes maze parameters to Generating Activity using a new and randomized seed
      * The parameters and generated seed are stored in a SQLite database for
      * persistent storage and later retrieval
+     * The seed is the one of the pregenerated maze, the next new maze gets a fresh one
      */
     public void startGenerating(){
-        int seed = (int)(Math.random()*(10000));
+        int seed = this.seed;
+        this.seed = (int)(Math.random()*(10000));
         Log.v("Seed:", " " + seed);
         Intent gen_activity = new Intent(this, GeneratingActivity.class);
         gen_activity.putExtra("Seed", seed);
@@ -134,6 +155,7 @@ public class AMazeActivity extends AppCompatActivity {
             //runOnUiThread(() -> Toast.makeText(AMazeActivity.this, "Rooms Disabled", Toast.LENGTH_SHORT).show());
             Log.v("Toggle rooms", "Rooms Disabled");
         }
+        pregenerate();
     }
 
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import androidx.appcompat.app.AppCompatActivity;
 
 import android.content.Intent;
 import android.os.Bundle;
+import android.os.Debug;
 import android.util.Log;
 import android.widget.ImageButton;
 import android.widget.ProgressBar;
@@ -13,9 +14,21 @@ import android.widget.Toast;
 
 import com.example.amazebyconnormackinnon.R;
 import com.example.amazebyconnormackinnon.generation.DefaultOrder;
+import com.example.amazebyconnormackinnon.generation.GenerationTelemetry;
 import com.example.amazebyconnormackinnon.generation.Maze;
+import com.example.amazebyconnormackinnon.generation.MazeCache;
 import com.example.amazebyconnormackinnon.generation.MazeFactory;
+import com.example.amazebyconnormackinnon.generation.MazePregenerator;
+import com.example.amazebyconnormackinnon.generation.MazeRecord;
 import com.example.amazebyconnormackinnon.generation.Order;
+import com.example.amazebyconnormackinnon.generation.TelemetryListener;
+import com.example.amazebyconnormackinnon.generation.ThreadMeter;
+import com.example.amazebyconnormackinnon.generation.Wall;
+import com.example.amazebyconnormackinnon.gui.ColorTheme;
+import com.example.amazebyconnormackinnon.gui.SQLiteHelper;
+
+import java.io.File;
+import java.io.IOException;
 
 public class GeneratingActivity extends AppCompatActivity {
     int driver_type = -1;
@@ -27,16 +40,41 @@ public class GeneratingActivity extends AppCompatActivity {
     DefaultOrder order;
     public static Maze maze;
     private MazeFactory factory;
+    //set once the factory is done with the order, whether it delivered a maze or not
+    private volatile boolean generationFinished;
+    //mazes generated before, revisiting a preset takes them from here instead of generating them again
+    private static final MazeCache CACHE = new MazeCache(Runtime.getRuntime().maxMemory() / 8);
+    //builds the maze for the selection on the title screen before the user asks for it
+    static final MazePregenerator PREGENERATOR = new MazePregenerator(CACHE);
+    //logs where the time goes for each generated maze as JSON
+    private static final TelemetryListener TELEMETRY = telemetry -> Log.v("Telemetry", telemetry.toJson());
+    //bytes the snapshots of recently played mazes may take, a deflated skill 15 maze takes about 4 MB
+    private static final long SNAPSHOT_BUDGET = 16L * 1024 * 1024;
+
+    static {
+        //walls get their colors from the color theme of the app
+        Wall.setColorScheme(ColorTheme::getWallColor);
+        //java.lang.management is not available on Android, the CPU time comes from Debug
+        //ART has no allocation counter per thread, so allocated bytes are reported as -1
+        GenerationTelemetry.setThreadMeter(new ThreadMeter() {
+            @Override
+            public long getCpuTimeNanos() {
+                return Debug.threadCpuTimeNanos();
+            }
+            @Override
+            public long getAllocatedBytes() {
+                return -1;
+            }
+        });
+        PREGENERATOR.setTelemetryListener(TELEMETRY);
+    }
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_generating);
 
-        //separate thread needed for building the maze and updating the progress bar
-        //for now we pretend the maze is being generated
         ProgressBar bar = findViewById(R.id.progressBar);
-        progressThread(bar);
 
         //back button to title
         ImageButton backButton = findViewById(R.id.backButton);
@@ -74,22 +112,36 @@ public class GeneratingActivity extends AppCompatActivity {
         algorithm = extras.getInt("Algorithm");
         difficulty = extras.getInt("Level");
         generateMaze(seed,algorithm,rooms,difficulty);
+        //the bar shows the progress of the order once per frame
+        //a separate thread waits for the maze and the driver selection
+        observeProgress(bar);
+        progressThread(bar);
     }
 
     private void generateMaze(int seed, int algorithm, boolean rooms, int difficulty) {
+        order = createOrder(seed, algorithm, rooms, difficulty);
+        //takes over the build that started on the title screen if it is for the same maze
+        factory = PREGENERATOR.claim(order);
+        if (factory == null) {
+            factory = new MazeFactory();
+            factory.setCache(CACHE);
+            factory.setTelemetryListener(TELEMETRY);
+            factory.order(order);
+        }
+    }
+
+    /** Creates the order for the given maze parameters
+     * the title screen uses the same orders for pregeneration
+     */
+    static DefaultOrder createOrder(int seed, int algorithm, boolean rooms, int difficulty) {
         switch (algorithm) {
             case 1:
-                order = new DefaultOrder(difficulty, Order.Builder.Boruvka, rooms, seed);
-                break;
+                return new DefaultOrder(difficulty, Order.Builder.Boruvka, rooms, seed);
             case 2:
-                order = new DefaultOrder(difficulty, Order.Builder.Prim, rooms, seed);
-                break;
+                return new DefaultOrder(difficulty, Order.Builder.Prim, rooms, seed);
             default:
-                order = new DefaultOrder(difficulty, Order.Builder.DFS, rooms, seed);
-                break;
+                return new DefaultOrder(difficulty, Order.Builder.DFS, rooms, seed);
         }
-        factory = new MazeFactory();
-        factory.order(order);
     }
 
     private void Manual(){
@@ -147,21 +199,84 @@ public class GeneratingActivity extends AppCompatActivity {
         startActivity(toTitle);
     }
 
+    /** Updates the bar with the progress of the order on every frame until it reaches 100
+     * or the factory is done with the order, e.g. when it was refused, cancelled or failed
+     * the builder publishes progress through an atomic value, so reading it never blocks
+     */
+    private void observeProgress(ProgressBar bar){
+        bar.postOnAnimation(new Runnable() {
+            public void run() {
+                int progress = order.getProgress();
+                bar.setProgress(progress);
+                if (progress < 100 && !generationFinished) {
+                    bar.postOnAnimation(this);
+                }
+            }
+        });
+    }
+
+    /** Checks the generated maze against the content hash stored for its preset
+     * presets only keep the parameters of the order, the first generation of a preset stores its hash
+     * if a later generation differs, the maze is taken from a snapshot if one is still kept
+     */
+    private void verifyMaze(){
+        if (maze == null) {
+            return;
+        }
+        SQLiteHelper db = new SQLiteHelper(getApplicationContext());
+        MazeRecord record = new MazeRecord(order, maze);
+        File snapshotFile = new File(getFilesDir(), record.getSnapshotName());
+        Long hash = db.getHash(rooms, algorithm, difficulty, seed);
+        if (hash == null) {
+            db.setHash(rooms, algorithm, difficulty, seed, record.getHash());
+            storeSnapshot(record, maze, snapshotFile);
+            return;
+        }
+        if (hash == record.getHash()) {
+            //a snapshot that is played again is kept longer than the others
+            if (!snapshotFile.setLastModified(System.currentTimeMillis())) {
+                storeSnapshot(record, maze, snapshotFile);
+            }
+            return;
+        }
+        Log.w("MazeRecord", "Maze for seed " + seed + " differs from the saved one");
+        MazeRecord saved = new MazeRecord(order.getSkillLevel(), order.getBuilder(), order.isPerfect(), seed, hash);
+        Maze snapshot = saved.loadSnapshot(new File(getFilesDir(), saved.getSnapshotName()).getPath());
+        if (snapshot != null) {
+            maze = snapshot;
+        }
+    }
+
+    /** Writes a snapshot of the maze in the background such that the driver prompt is not delayed
+     * only the most recently played snapshots are kept, up to SNAPSHOT_BUDGET bytes in total
+     * the file is written under a temporary name first, a snapshot that is cut short is never loaded
+     */
+    private static void storeSnapshot(MazeRecord record, Maze maze, File snapshotFile){
+        Thread writer = new Thread(() -> {
+            File partial = new File(snapshotFile.getPath() + ".part");
+            try {
+                record.storeSnapshot(partial.getPath(), maze);
+                if (!partial.renameTo(snapshotFile)) {
+                    throw new IOException("can not rename " + partial);
+                }
+                MazeRecord.evictSnapshots(snapshotFile.getParentFile(), SNAPSHOT_BUDGET);
+            } catch (IOException e) {
+                partial.delete();
+                Log.w("MazeRecord", "Snapshot " + snapshotFile.getName() + " not written", e);
+            }
+        });
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
     private void progressThread(ProgressBar bar){
         new Thread(new Runnable() {
             public void run() {
-                while (bar.getProgress() != 100) {
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                    bar.setProgress(order.getProgress());
-                }
-                //progress bar and maze generation can be several milliseconds off
-                //this ensures the maze is delivered on time
+                //blocks until the builder delivers, progress is shown by observeProgress
                 factory.waitTillDelivered();
+                generationFinished = true;
                 maze = order.getMaze();
+                verifyMaze();
                 if (driver_type == -1) {
                     runOnUiThread(() -> Toast.makeText(GeneratingActivity.this, "Choose a driver to continue!", Toast.LENGTH_LONG).show());
                     Log.v("ProgressBar", "Driver Needed");
@@ -19,19 +19,35 @@ public class SQLiteHelper extends SQLiteOpenHelper {
     public static final String Algorithm_Field = "algorithm";
     public static final String Difficulty_Field = "difficulty";
     public static final String Seed_Field = "seed";
+    //content hash of the floorplan generated for the preset, null until the maze is generated
+    public static final String Hash_Field = "hash";
+    //seeds are drawn from 0-9999 for every difficulty and algorithm, only all four fields identify a maze
+    private static final String Key = Rooms_Field + "," + Algorithm_Field + "," + Difficulty_Field + "," + Seed_Field;
 
     public SQLiteHelper(Context context) {
-        super(context, Database, null, 1);
+        super(context, Database, null, 3);
     }
 
     @Override
     public void onCreate(SQLiteDatabase sqLiteDatabase) {
         //I should really use the parameters I just created...but this is working code...
-        sqLiteDatabase.execSQL("CREATE TABLE " + Table + "(rooms INT,algorithm INT,difficulty INT,seed INT PRIMARY KEY)");
+        sqLiteDatabase.execSQL("CREATE TABLE " + Table + "(rooms INT,algorithm INT,difficulty INT,seed INT," + Hash_Field + " INTEGER,PRIMARY KEY(" + Key + "))");
     }
 
     @Override
     public void onUpgrade(SQLiteDatabase sqLiteDatabase, int i, int i1) {
+        //version 2 adds the hash, presets of version 1 are kept and get their hash on the next visit
+        if (i == 1) {
+            sqLiteDatabase.execSQL("ALTER TABLE " + Table + " ADD COLUMN " + Hash_Field + " INTEGER");
+        }
+        //version 3 keys presets by all four fields instead of the seed alone, the presets are copied over
+        if (i <= 2) {
+            sqLiteDatabase.execSQL("ALTER TABLE " + Table + " RENAME TO " + Table + "_old");
+            onCreate(sqLiteDatabase);
+            sqLiteDatabase.execSQL("INSERT INTO " + Table + " SELECT " + Key + "," + Hash_Field + " FROM " + Table + "_old");
+            sqLiteDatabase.execSQL("DROP TABLE " + Table + "_old");
+            return;
+        }
         sqLiteDatabase.execSQL("DROP TABLE IF EXISTS "+ Table);
         onCreate(sqLiteDatabase);
     }
@@ -82,4 +98,45 @@ public class SQLiteHelper extends SQLiteOpenHelper {
 
     }
 
+    /** Stores the content hash of the maze generated for a preset
+     * the hash of the first generation is kept, later generations are checked against it
+     * @param rooms indicates whether the preset allows rooms
+     * @param algorithm indicates which algorithm the preset is using
+     * @param difficulty indicates which difficulty the preset is using
+     * @param seed indicates which seed the preset is using
+     * @param hash the content hash of the floorplan of the maze
+     */
+    public void setHash(Boolean rooms, int algorithm, int difficulty, int seed, long hash){
+        SQLiteDatabase sqLiteDatabase = this.getWritableDatabase();
+        ContentValues contentValues = new ContentValues();
+        contentValues.put(Hash_Field, hash);
+        sqLiteDatabase.update(Table, contentValues, presetClause(rooms, algorithm, difficulty, seed) + " AND " + Hash_Field + " IS NULL", null);
+    }
+
+    /**
+     * @param rooms indicates whether the preset allows rooms
+     * @param algorithm indicates which algorithm the preset is using
+     * @param difficulty indicates which difficulty the preset is using
+     * @param seed indicates which seed the preset is using
+     * @return the content hash stored for the preset or null if the preset has no hash yet
+     */
+    public Long getHash(Boolean rooms, int algorithm, int difficulty, int seed){
+        SQLiteDatabase sqLiteDatabase = this.getReadableDatabase();
+        Cursor result = sqLiteDatabase.rawQuery("SELECT " + Hash_Field + " FROM " + Table + " WHERE " + presetClause(rooms, algorithm, difficulty, seed), null);
+        try {
+            if (!result.moveToFirst() || result.isNull(0)){
+                return null;
+            }
+            return result.getLong(0);
+        }
+        finally {
+            result.close();
+        }
+    }
+
+    private static String presetClause(Boolean rooms, int algorithm, int difficulty, int seed){
+        int bool = rooms ? 1 : 0;
+        return Rooms_Field + " = " + bool + " AND " + Algorithm_Field + " = " + algorithm + " AND " + Difficulty_Field + " = " + difficulty + " AND " + Seed_Field + " = " + seed;
+    }
+
 }
@@ -0,0 +1,74 @@
+package com.example.amazebyconnormackinnon.generation;
+/**
+ * This class prepares builders for the benchmarks such that
+ * a benchmark measures a single phase of MazeBuilder.run.
+ * All orders use the same fixed seed, so a benchmark
+ * works on the same maze in every iteration and every run.
+ */
+final class BenchmarkMazes {
+	/**
+	 * The seed for all orders in the benchmarks.
+	 */
+	static final int SEED = 13;
+	/**
+	 * The number of cells that a benchmark processes per invocation at least,
+	 * such that an invocation takes more than a millisecond and the 
+	 * timing overhead of a setup per invocation is negligible.
+	 */
+	static final int BATCH_CELLS = 1 << 16;
+
+	private BenchmarkMazes() {
+	}
+
+	/**
+	 * Gives the number of mazes that a benchmark with a setup per invocation
+	 * processes in each invocation, a single maze for large skill levels.
+	 * @param skillLevel the skill level of the mazes, {@code 0 <= skillLevel <= 15}
+	 * @return the number of mazes per invocation, at least 1
+	 */
+	static int batchSize(int skillLevel) {
+		final int cells = MazeConstants.SKILL_X[skillLevel] * MazeConstants.SKILL_Y[skillLevel];
+		return Math.max(1, BATCH_CELLS / cells);
+	}
+	/**
+	 * Creates a builder for the given parameters with an initialized floorplan,
+	 * i.e. all wallboards are up and no rooms are placed yet.
+	 * @param skillLevel the skill level of the maze, {@code 0 <= skillLevel <= 15}
+	 * @param builder the builder algorithm
+	 * @param perfect true for a maze without rooms
+	 * @return the builder, ready to place rooms
+	 */
+	static MazeBuilder initialized(int skillLevel, Order.Builder builder, boolean perfect) {
+		final DefaultOrder order = new DefaultOrder(skillLevel, builder, perfect, SEED);
+		final MazeBuilder result = MazeFactory.createBuilder(order);
+		result.buildOrder(order);
+		result.floorplan.initialize();
+		return result;
+	}
+	/**
+	 * Creates a builder for the given parameters that has placed the rooms.
+	 * @param skillLevel the skill level of the maze, {@code 0 <= skillLevel <= 15}
+	 * @param builder the builder algorithm
+	 * @param perfect true for a maze without rooms
+	 * @return the builder, ready to generate pathways
+	 */
+	static MazeBuilder withRooms(int skillLevel, Order.Builder builder, boolean perfect) {
+		final MazeBuilder result = initialized(skillLevel, builder, perfect);
+		result.generateRooms(); // places no rooms for a perfect maze
+		return result;
+	}
+	/**
+	 * Creates a builder for the given parameters that has generated pathways,
+	 * distances and start and exit position, i.e. everything but the BSP tree.
+	 * @param skillLevel the skill level of the maze, {@code 0 <= skillLevel <= 15}
+	 * @param builder the builder algorithm
+	 * @param perfect true for a maze without rooms
+	 * @return the builder, ready to build the BSP tree
+	 * @throws InterruptedException if the thread is interrupted during the generation
+	 */
+	static MazeBuilder generated(int skillLevel, Order.Builder builder, boolean perfect) throws InterruptedException {
+		final MazeBuilder result = withRooms(skillLevel, builder, perfect);
+		result.generate();
+		return result;
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the phases of MazeBuilder.run that follow the generation
+ * of pathways: the distance matrix, the list of walls and the BSP tree.
+ * These phases read the floorplan but do not change the maze, so a single
+ * maze is generated per trial and used for all invocations.
+ *
+ * The BSP builder does not report progress, large lists of walls
+ * are partitioned in parallel as in the app.
+ * generateBSPNodes includes the construction of the list of walls.
+ * It compares the strategies to select splitters and reports the shape
+ * of the resulting tree as counters: maxDepth, averageLeafDepth,
+ * maxLeafSize and averageLeafSize, the values of BSPTreeStatistics.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneratedMazeBenchmark {
+	@Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+	int skillLevel;
+	@Param({"DFS", "Prim", "Kruskal", "Eller", "Boruvka"})
+	Order.Builder builderAlgorithm;
+	@Param({"false", "true"})
+	boolean perfect;
+
+	private MazeBuilder builder;
+	private int colchange;
+
+	/**
+	 * The strategy to select splitters, a separate state such that
+	 * only generateBSPNodes runs for each strategy.
+	 */
+	@State(Scope.Thread)
+	public static class SplitterSelection {
+		@Param({"Sweep", "Sampled"})
+		BSPBuilder.Splitter splitter;
+	}
+	/**
+	 * The shape of the last tree built in an iteration,
+	 * the same maze gives the same tree in every invocation.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class TreeShape {
+		public int maxDepth;
+		public double averageLeafDepth;
+		public int maxLeafSize;
+		public double averageLeafSize;
+
+		void record(BSPNode root) {
+			final BSPTreeStatistics statistics = new BSPTreeStatistics(root);
+			maxDepth = statistics.getMaxDepth();
+			averageLeafDepth = statistics.getAverageLeafDepth();
+			maxLeafSize = statistics.getMaxLeafSize();
+			averageLeafSize = statistics.getAverageLeafSize();
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws InterruptedException {
+		builder = BenchmarkMazes.generated(skillLevel, builderAlgorithm, perfect);
+		colchange = builder.random.nextIntWithinInterval(0, 255);
+	}
+
+	@Benchmark
+	public int[] computeDistances() throws InterruptedException {
+		return builder.dists.computeDistances(builder.floorplan);
+	}
+
+	@Benchmark
+	public List<Wall> generateWalls() {
+		return new ListOfWallsBuilder(builder.width, builder.height,
+				builder.floorplan, builder.dists, colchange).generateWalls();
+	}
+
+	@Benchmark
+	public BSPNode generateBSPNodes(SplitterSelection selection, TreeShape shape) throws InterruptedException {
+		final BSPBuilder bsp = new BSPBuilder(builder.dists, builder.floorplan, builder.width, builder.height,
+				colchange);
+		bsp.setSplitter(selection.splitter);
+		final BSPNode root = bsp.generateBSPNodes();
+		shape.record(root);
+		return root;
+	}
+}
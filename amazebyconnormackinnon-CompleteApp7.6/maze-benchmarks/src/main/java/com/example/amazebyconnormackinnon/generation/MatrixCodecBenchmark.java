@@ -0,0 +1,111 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the encoding of cells and distances with MatrixCodec
+ * as it is used for the binary format of MazeFileWriter.
+ * A single maze is generated per trial and encoded once for the decode benchmarks.
+ *
+ * Besides the invocations per second, each benchmark reports the counters
+ * cells and bytes: the cells processed per second and the encoded bytes
+ * per second. Bytes divided by cells gives the size of the encoding per cell,
+ * the raw binary format takes 2 bytes per cell and 4 bytes per distance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixCodecBenchmark {
+	@Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+	int skillLevel;
+	@Param({"false", "true"})
+	boolean deflate;
+
+	private int width;
+	private int height;
+	private Floorplan floorplan;
+	private int[][] dists;
+	private byte[] encodedCells;
+	private byte[] encodedDists;
+	private Floorplan decodedFloorplan;
+	private int[][] decodedDists;
+
+	/**
+	 * Counts the cells and the encoded bytes that a benchmark processes.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public long cells;
+		public long bytes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			cells = 0;
+			bytes = 0;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void setUp() throws InterruptedException {
+		final MazeBuilder builder = BenchmarkMazes.generated(skillLevel, Order.Builder.DFS, false);
+		width = builder.width;
+		height = builder.height;
+		floorplan = builder.floorplan;
+		dists = builder.dists.getAllDistanceValues();
+		encodedCells = MatrixCodec.encodeCells(floorplan, width, height, deflate);
+		encodedDists = MatrixCodec.encodeDistances(dists, width, height, deflate);
+		decodedFloorplan = new Floorplan(width, height, floorplan.getStorage());
+		decodedDists = new int[width][height];
+	}
+
+	@Benchmark
+	public byte[] encodeCells(Counters counters) {
+		final byte[] result = MatrixCodec.encodeCells(floorplan, width, height, deflate);
+		counters.cells += width*height;
+		counters.bytes += result.length;
+		return result;
+	}
+
+	@Benchmark
+	public Floorplan decodeCells(Counters counters) throws IOException {
+		MatrixCodec.decodeCells(encodedCells, decodedFloorplan, width, height, deflate);
+		counters.cells += width*height;
+		counters.bytes += encodedCells.length;
+		return decodedFloorplan;
+	}
+
+	@Benchmark
+	public byte[] encodeDistances(Counters counters) {
+		final byte[] result = MatrixCodec.encodeDistances(dists, width, height, deflate);
+		counters.cells += width*height;
+		counters.bytes += result.length;
+		return result;
+	}
+
+	@Benchmark
+	public int[][] decodeDistances(Counters counters) throws IOException {
+		MatrixCodec.decodeDistances(encodedDists, decodedDists, width, height, deflate);
+		counters.cells += width*height;
+		counters.bytes += encodedDists.length;
+		return decodedDists;
+	}
+}
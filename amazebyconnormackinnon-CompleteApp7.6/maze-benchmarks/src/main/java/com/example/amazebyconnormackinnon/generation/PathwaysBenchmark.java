@@ -0,0 +1,76 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks generatePathways, the phase in which the builder algorithms differ.
+ * Generating pathways changes the floorplan, each invocation starts
+ * from fresh floorplans where the rooms are already placed
+ * and with fresh random streams for the fixed seed.
+ * An invocation generates a batch of mazes, see BenchmarkMazes.batchSize,
+ * as a setup per invocation distorts the timing of operations that take
+ * less than a millisecond. The primary score counts batches, 
+ * the counter mazes gives the mazes per second.
+ * The gc profiler counts the allocations of this setup as well,
+ * they are about the size of the floorplans and the distance matrices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathwaysBenchmark {
+	@Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+	int skillLevel;
+	@Param({"DFS", "Prim", "Kruskal", "Eller", "Boruvka"})
+	Order.Builder builderAlgorithm;
+	@Param({"false", "true"})
+	boolean perfect;
+
+	private MazeBuilder[] builders;
+
+	/**
+	 * Counts the mazes that a benchmark generates.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public long mazes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			mazes = 0;
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		if (null == builders)
+			builders = new MazeBuilder[BenchmarkMazes.batchSize(skillLevel)];
+		for (int i = 0; i != builders.length; i++)
+			builders[i] = BenchmarkMazes.withRooms(skillLevel, builderAlgorithm, perfect);
+	}
+
+	@Benchmark
+	public Floorplan generatePathways(Counters counters) throws InterruptedException {
+		for (MazeBuilder builder : builders)
+			builder.generatePathways();
+		counters.mazes += builders.length;
+		return builders[builders.length-1].floorplan;
+	}
+}
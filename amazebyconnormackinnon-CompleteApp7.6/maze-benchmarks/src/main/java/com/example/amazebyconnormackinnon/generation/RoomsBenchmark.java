@@ -0,0 +1,72 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the placement of rooms, the first phase of MazeBuilder.run.
+ * Rooms are placed the same way for every builder algorithm and only
+ * if the maze is not perfect, so the skill level is the only parameter.
+ * Placing rooms changes the floorplan, each invocation starts
+ * from fresh floorplans with all wallboards up.
+ * An invocation places the rooms of a batch of mazes as in PathwaysBenchmark,
+ * the counter mazes gives the mazes per second.
+ * The gc profiler counts the allocations of this setup as well,
+ * they are about the size of the floorplans and the distance matrices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomsBenchmark {
+	@Param({"0", "1", "2", "3", "4", "5", "6", "7", "8", "9", "10", "11", "12", "13", "14", "15"})
+	int skillLevel;
+
+	private MazeBuilder[] builders;
+
+	/**
+	 * Counts the mazes that a benchmark places rooms in.
+	 */
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	public static class Counters {
+		public long mazes;
+
+		@Setup(Level.Iteration)
+		public void reset() {
+			mazes = 0;
+		}
+	}
+
+	@Setup(Level.Invocation)
+	public void setUp() {
+		if (null == builders)
+			builders = new MazeBuilder[BenchmarkMazes.batchSize(skillLevel)];
+		for (int i = 0; i != builders.length; i++)
+			builders[i] = BenchmarkMazes.initialized(skillLevel, Order.Builder.DFS, false);
+	}
+
+	@Benchmark
+	public int generateRooms(Counters counters) {
+		int rooms = 0;
+		for (MazeBuilder builder : builders)
+			rooms += builder.generateRooms();
+		counters.mazes += builders.length;
+		return rooms;
+	}
+}
@@ -8,7 +8,6 @@ import java.util.logging.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
-import com.example.amazebyconnormackinnon.gui.MazeFileWriter;
 
 /**
  * BSPNodes are used to build a binary tree, where internal nodes keep track 
@@ -40,24 +39,24 @@ public class BSPBranch extends BSPNode {
 	
 	/**
      * x coordinate of starting position of wall.
-     * Range: {@code 0 <= x <= width * Constants.MAP_UNIT}
+     * Range: {@code 0 <= x <= width * MazeConstants.MAP_UNIT}
      */
 	private int x;
 	/**
      * y coordinate of starting position of wall.
-     * Range: {@code 0 <= y <= height  * Constants.MAP_UNIT}
+     * Range: {@code 0 <= y <= height  * MazeConstants.MAP_UNIT}
      */
 	private int y;
 	/**
      * direction (sign) and length (absolute value)
      * of wall in x coordinate.
-     * Range: {@code 0 <= x+dx <= width * Constants.MAP_UNIT}
+     * Range: {@code 0 <= x+dx <= width * MazeConstants.MAP_UNIT}
      */
 	private int dx;
 	/**
      *  direction (sign) and length  (absolute value)
      *  of wall in y coordinate.
-     *  Range: {@code 0 <= y+dy <= height * Constants.MAP_UNIT}
+     *  Range: {@code 0 <= y+dy <= height * MazeConstants.MAP_UNIT}
      */
 	private int dy;
 	// Side condition: either dx != 0 and dy == 0 or vice versa
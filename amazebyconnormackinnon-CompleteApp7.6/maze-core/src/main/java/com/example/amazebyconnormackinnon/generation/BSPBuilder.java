@@ -0,0 +1,415 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.logging.Logger;
+
+//import gui.Constants;
+
+/**
+ * This class has the responsibility to obtain the tree of BSP nodes for a given maze.
+ * BSP stands for binary space partitioning. 
+ * See https://en.wikipedia.org/wiki/Binary_space_partitioning for some details.
+ * 
+ * This code is refactored code from MazeBuilder.java by Paul Falstad, www.falstad.com, Copyright (C) 1998, all rights reserved
+ * Paul Falstad granted permission to modify and use code for teaching purposes.
+ * Refactored by Peter Kemper
+ *
+ * The two subtrees of a branch are built from disjoint lists of walls,
+ * so for large lists the left subtree is forked onto a fork/join pool
+ * while the current thread works on the right one. The choice of splitters
+ * does not depend on the order of execution, so the resulting tree is
+ * the same as for a sequential construction.
+ */
+public class BSPBuilder {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(BSPBuilder.class.getName());
+	/**
+	 * Default for the minimum number of walls in a list to build its subtrees in parallel.
+	 * Smaller lists are not worth the overhead of a fork.
+	 */
+	public static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+	/**
+	 * Pool for the parallel construction, shared by all builders.
+	 * Created on demand, ForkJoinPool.commonPool() is not available before API level 24.
+	 */
+	private static ForkJoinPool pool;
+	/**
+	 * Strategies to select the wall that partitions a node.
+	 * Sweep computes the exact grade for every candidate from sorted wall endpoints,
+	 * see SplitterSweep.
+	 * Sampled is the original heuristic that grades up to 50 sampled
+	 * candidates against a sample of the walls of the node.
+	 * Both choose among walls that are not yet partitioned,
+	 * so they yield different trees of similar shape.
+	 */
+	public enum Splitter {Sweep, Sampled};
+
+	private final int width ; 				// width of maze
+	private final int height ; 				// height of maze
+	private final Distance dists ; 			// distance matrix
+	private final Floorplan floorplan ;		// floorplan with maze layout
+	private final int colchange ;			// comes from a random number, purpose unclear, 
+	// colchange: reason for randomization unclear, used to determine color of wall 
+	private GenerationProgress progress ; // receives the number of walls in new leaves, null if not used
+	private GenerationTelemetry telemetry ; // receives the work of pool threads, null if not used
+	private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD ; // minimum number of walls to fork
+	private Splitter splitterSelection = Splitter.Sweep ; // strategy for findSplitter
+	private Thread owner ; // thread that called generateBSPNodes, its interrupt status cancels the construction
+	private volatile boolean cancelled ; // set when the owner is interrupted while it waits for the pool
+	/**
+	 * Constructor
+	 * @param dists the distances to the exit
+	 * @param floorplan the floorplan
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param colchange
+	 */
+	public BSPBuilder(Distance dists, Floorplan floorplan, int width, int height, int colchange) {
+		this.dists = dists ;
+		this.floorplan = floorplan ;
+		this.width = width ;
+		this.height = height ;
+		this.colchange = colchange ;
+	}
+	/**
+	 * Sets the progress that receives the number of walls in each new leaf.
+	 * The expected number of walls is set when the BSP phase begins.
+	 * @param progress the progress of the generation, null to not report progress
+	 */
+	void setProgress(GenerationProgress progress) {
+		this.progress = progress ;
+	}
+	/**
+	 * Sets the telemetry that receives the CPU time and the allocations
+	 * of the pool threads for the current phase.
+	 * @param telemetry the telemetry of the generation, null to not measure pool threads
+	 */
+	void setTelemetry(GenerationTelemetry telemetry) {
+		this.telemetry = telemetry ;
+	}
+	/**
+	 * Sets the minimum number of walls in a list such that its two subtrees 
+	 * are built in parallel. A value of Integer.MAX_VALUE turns the parallel
+	 * construction off.
+	 * @param threshold the minimum number of walls, {@code 0 < threshold}
+	 */
+	public void setParallelThreshold(int threshold) {
+		assert 0 < threshold : "Threshold must be positive";
+		parallelThreshold = threshold ;
+	}
+	/**
+	 * Gives the strategy to select splitters.
+	 * @return the current strategy, Sweep by default
+	 */
+	public Splitter getSplitter() {
+		return splitterSelection ;
+	}
+	/**
+	 * Selects the strategy to select splitters in subsequent calls
+	 * of {@link #generateBSPNodes() generateBSPNodes}.
+	 * @param splitter the strategy to use, can not be null
+	 */
+	public void setSplitter(Splitter splitter) {
+		this.splitterSelection = splitter ;
+	}
+
+	/**
+	 * Create tree of BSP nodes for a given list of walls.
+	 * The binary space partitioning algorithm is recursive.
+	 * General idea at each level of recursion: 
+	 * pick one wall, split all other walls into two lists. 
+	 * One list contains all walls that are in front of selected wall,
+	 * the other list contains all walls that are behind the selected wall.
+	 * Walls that intersect are split into two walls accordingly; the parts
+	 * are added to the corresponding lists. 
+	 * In theory, polygons can lie in the plane of the selected wall such
+	 * that a BSP node would hold on to a list of polygons. This is not 
+	 * possible in this maze application.
+	 * The code names lists rather left and right to match the terminology of trees
+	 * rather than front and back which would resemble terminology for drawing.
+	 * The code selects the wall that has the minimum grade value as the one 
+	 * for partitioning.
+	 * If all the walls in one node are partitioned, it will stop to split.
+	 * Inside the fork/join pool, the left subtree of a large list is forked.
+	 * @param walls the list of walls (polygons) to partition
+	 * @return root node for BSP tree
+	 * @throws InterruptedException if its executing thread or the owner thread is interrupted
+	 */
+	private BSPNode genNodes(List<Wall> walls) throws InterruptedException {
+		checkCancelled();
+		// the owner hands a large list to the pool only while it runs at normal priority,
+		// the pool threads have normal priority and would otherwise raise a background build
+		if (Thread.currentThread() == owner && walls.size() >= parallelThreshold 
+				&& owner.getPriority() >= Thread.NORM_PRIORITY)
+			return buildInPool(walls);
+		// Recursion anchor:
+		// if there is no wall with a partition bit set to false, 
+		// there is nothing else to do and we are at a leaf node
+		if (countNonPartitions(walls) == 0)
+			return newLeaf(walls);
+		// Step: pick the wall that is used to partition all others into left and right
+		// Criterion: from the ones that have a partition bit set to false, 
+		// pick a candidate with a low grade
+		// Note: the splitter remains an element of the walls list but is marked as partitioned
+		Wall splitter = findSplitter(walls);
+		splitter.setPartition(true);
+		
+		// Step: split all walls into two lists
+		// left the resulting list of walls for the left side of the subtree
+		// right the resulting list of walls for the right side of the subtree
+		final ArrayList<Wall> left = new ArrayList<>();
+		final ArrayList<Wall> right = new ArrayList<>();
+		splitter.splitWalls(walls, left, right, colchange);
+		
+		// Recursion anchor
+		// Case: from the current node, the tree has only 1 branch.
+		// Note: the splitter is in one of the 2 lists, so if one list is empty,
+		// The current node is a leaf and 
+		// we just terminate the recursion with the non-empty list.
+		if (left.isEmpty())
+			return newLeaf(right);
+		if (right.isEmpty())
+			return newLeaf(left);
+		
+		// Case: two sided recursion, need to create a node
+		// and recursively calculate subtrees for both sides.
+		// The lists are disjoint, so both sides can be computed in parallel.
+		final BSPNode leftNode;
+		final BSPNode rightNode;
+		if (walls.size() >= parallelThreshold && ForkJoinTask.inForkJoinPool()) {
+			SubtreeTask leftTask = new SubtreeTask(left);
+			leftTask.fork();
+			rightNode = genNodes(right);
+			leftNode = leftTask.join();
+		}
+		else {
+			leftNode = genNodes(left);
+			rightNode = genNodes(right);
+		}
+		return new BSPBranch(splitter.getStartPositionX(), splitter.getStartPositionY(), 
+				splitter.getExtensionX(), splitter.getExtensionY(), 
+				leftNode, rightNode); 
+	}
+	/**
+	 * Creates a leaf and reports its walls as progress.
+	 * Every wall ends up in exactly one leaf, so the walls in leaves
+	 * measure how much of the tree is complete.
+	 * @param walls the walls of the leaf
+	 * @return the new leaf
+	 */
+	private BSPLeaf newLeaf(List<Wall> walls) {
+		if (null != progress)
+			progress.worked(walls.size());
+		return new BSPLeaf(walls);
+	}
+	/**
+	 * Computes a subtree in the fork/join pool.
+	 * An interrupt is passed on as a CancellationException as compute()
+	 * can not throw checked exceptions.
+	 * With telemetry, each task measures the work of its thread.
+	 */
+	private class SubtreeTask extends RecursiveTask<BSPNode> {
+		private static final long serialVersionUID = 1L;
+		private final List<Wall> walls;
+
+		SubtreeTask(List<Wall> walls) {
+			this.walls = walls;
+		}
+		@Override
+		protected BSPNode compute() {
+			final GenerationTelemetry measure = telemetry;
+			final boolean measured = null != measure && measure.beginPoolTask();
+			try {
+				return genNodes(walls);
+			} catch (InterruptedException e) {
+				throw new CancellationException("BSP construction interrupted");
+			} finally {
+				if (measured)
+					measure.endPoolTask();
+			}
+		}
+	}
+	/**
+	 * Worker threads of the pool are not interrupted when the owner thread is,
+	 * so all threads check the owner's interrupt status.
+	 * While the owner waits for the pool, its interrupt is consumed by the wait
+	 * and passed on with the cancelled flag.
+	 * @throws InterruptedException if the owner thread is interrupted
+	 */
+	private void checkCancelled() throws InterruptedException {
+		if (cancelled || (null != owner && owner.isInterrupted()))
+			throw new InterruptedException();
+	}
+	
+
+    /**
+	 * Counts how many elements in the wall vector have their partition bit set to false
+	 * @param walls all walls
+	 * @return number of walls where the partition flag is not set
+	 */
+	private static int countNonPartitions(List<Wall> walls) {
+		int result = 0 ;
+		for (Wall wall: walls) {
+			if (!wall.isPartition())
+				result++;
+		}
+		return result;
+	}
+
+	/**
+	 * It finds the wall which has the minimum grade value
+	 * with the selected strategy.
+	 * @param walls list of walls, remains unchanged
+	 * @return wall that is best candidate according to grade partition (smallest grade)
+	 */
+	private Wall findSplitter(List<Wall> walls) {
+		if (Splitter.Sampled == splitterSelection)
+			return findSplitterBySampling(walls);
+		return SplitterSweep.findSplitter(walls);
+	}
+	/**
+	 * It finds the wall which has the minimum grade value among a sample of walls.
+	 * @param walls list of walls, remains unchanged
+	 * @return wall that is best candidate according to grade partition (smallest grade)
+	 */
+	private Wall findSplitterBySampling(List<Wall> walls) {
+		Wall result = null ;
+		int bestgrade = 5000; // used to compute the minimum of all observed grade values, set to some high initial value
+		final int maxtries = 50; // constant, only used to determine skip
+		// consider a subset of walls proportional to the number of tries, here 50, seems to randomize the access a bit
+		int skip = (walls.size() / maxtries);
+		if (skip == 0)
+			skip = 1;
+		assert 0 < skip : "Increment for loop must be positive";
+		for (int i = 0; i < walls.size(); i += skip) {
+			Wall wall = walls.get(i);
+			// skip walls where the partition flag was set
+			if (wall.isPartition())
+				continue;
+			// check grade and keep track of minimum
+			int grade = wall.calculateGrade(walls);
+			if (grade < bestgrade) {
+				bestgrade = grade;
+				result = wall; // determine wall with smallest grade
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Set the partition bit to true for walls on the border and where the direction is 0
+	 * @param walls the list of walls to consider
+	 */
+	private void setPartitionBitForCertainWalls(List<Wall> walls) {
+	    for (Wall wall : walls) {
+			wall.updatePartitionIfBorderCase(width*MazeConstants.MAP_UNIT, height*MazeConstants.MAP_UNIT);
+		}
+	}
+
+
+
+
+	/**
+	 * Generate tree of BSP nodes for a given maze.
+	 * We use the binary space partitioning algorithm to compute a BSP tree.
+	 * The method is recursive and operates on a list of polygons.
+	 * Here each wall, i.e. a continuous sequence of wallboards, forms
+	 * such a polygon.  
+	 * Large lists of walls are partitioned in parallel, the calling thread
+	 * waits for the result.
+	 * @return the root node for the BSP tree
+	 * @throws InterruptedException if executing thread is interrupted
+	 */
+	public BSPNode generateBSPNodes() throws InterruptedException {
+		return generateBSPNodes(generateWalls());
+	}
+	/**
+	 * Determines the list of walls that the BSP tree is built from.
+	 * @return the walls for the floorplan with partition bits set for border cases
+	 */
+	public List<Wall> generateWalls() {
+		// Binary space partitioning operates on polygons (here: walls)
+		// the floorplan only lists wallboards.
+		// We need to determine walls, i.e. wallboards over multiple cells in
+		// a vertical or horizontal direction.
+		ListOfWallsBuilder builder = new ListOfWallsBuilder(width, height, floorplan, dists, colchange);
+		List<Wall> walls = builder.generateWalls(); 
+
+		// The size and balance of the resulting BSP tree depends on 
+		// which polygons are selected for the partitioning.
+		// Hypothesis: the partition bit is used for this decision 
+		// Observation: partition bit true means that that polygon 
+		// is not considered any further for node generation
+		setPartitionBitForCertainWalls(walls); 
+
+		// TODO: check why this is done. 
+		// It creates a top wallboard on position (0,0). 
+		// This may even corrupt a maze and block its exit!
+		floorplan.addWallboard(new Wallboard(0, 0, CardinalDirection.North), false);
+		return walls;
+	}
+	/**
+	 * Generate tree of BSP nodes for the given list of walls.
+	 * The tree is built in the fork/join pool if the list is large and the calling
+	 * thread runs at normal priority or above. A thread with a lower priority
+	 * builds the tree on its own, such that a background build occupies a single core,
+	 * and it moves on to the pool for the remaining subtrees once its priority is raised.
+	 * @param walls the walls obtained from {@link #generateWalls() generateWalls}
+	 * @return the root node for the BSP tree
+	 * @throws InterruptedException if executing thread is interrupted
+	 */
+	public BSPNode generateBSPNodes(List<Wall> walls) throws InterruptedException {
+		owner = Thread.currentThread();
+		cancelled = false;
+		// Start the recursive BSP calculation for the list of polygons
+		// and return the root node of the tree
+		return genNodes(walls); 
+	}
+	/**
+	 * Builds the subtree for the given list of walls in the pool.
+	 * The owner thread waits for the pool with an interruptible get, 
+	 * ForkJoinPool.invoke would hold back an interrupt till the whole tree is built.
+	 * @param walls the list of walls to partition
+	 * @return root node for the subtree
+	 * @throws InterruptedException if the owner thread is interrupted
+	 */
+	private BSPNode buildInPool(List<Wall> walls) throws InterruptedException {
+		final SubtreeTask root = new SubtreeTask(walls);
+		getPool().execute(root);
+		try {
+			return root.get();
+		} catch (InterruptedException e) {
+			cancelled = true; // stop the pool threads at their next node
+			LOGGER.fine("BSP construction cancelled");
+			throw e;
+		} catch (CancellationException e) {
+			LOGGER.fine("BSP construction cancelled");
+			throw new InterruptedException();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof CancellationException) {
+				LOGGER.fine("BSP construction cancelled");
+				throw new InterruptedException();
+			}
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw (Error) e.getCause(); // compute() does not throw checked exceptions
+		}
+	}
+	/**
+	 * Provides the shared fork/join pool, creates it on first use.
+	 * @return the pool for the parallel construction
+	 */
+	private static synchronized ForkJoinPool getPool() {
+		if (null == pool)
+			pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+		return pool;
+	}
+}
@@ -6,7 +6,6 @@ package com.example.amazebyconnormackinnon.generation;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
-import com.example.amazebyconnormackinnon.gui.MazeFileWriter;
 
 /**
  * BSPNodes are used to build a binary tree, where internal nodes keep track 
@@ -0,0 +1,90 @@
+package com.example.amazebyconnormackinnon.generation;
+
+/**
+ * This class collects figures on the shape of a BSP tree
+ * to compare the trees that different splitter strategies deliver.
+ * The depth of the tree bounds the work for a lookup while
+ * the size of leaves determines how many walls are drawn per leaf.
+ *
+ * @see BSPBuilder.Splitter
+ */
+public class BSPTreeStatistics {
+	private int branches ; 		// number of inner nodes
+	private int leaves ;		// number of leaf nodes
+	private int walls ;			// total number of walls in all leaves
+	private int maxDepth ;		// length of longest path from root to leaf
+	private long sumLeafDepth ;	// sum of depths of all leaves
+	private int maxLeafSize ;	// number of walls in largest leaf
+
+	/**
+	 * Constructor traverses the given tree.
+	 * @param root the root node of a BSP tree, can not be null
+	 */
+	public BSPTreeStatistics(BSPNode root) {
+		visit(root, 0);
+	}
+
+	private void visit(BSPNode node, int depth) {
+		if (node.isIsleaf()) {
+			final int size = ((BSPLeaf) node).getAllWalls().size();
+			leaves++;
+			walls += size;
+			sumLeafDepth += depth;
+			maxDepth = Math.max(maxDepth, depth);
+			maxLeafSize = Math.max(maxLeafSize, size);
+			return;
+		}
+		final BSPBranch branch = (BSPBranch) node;
+		branches++;
+		visit(branch.getLeftBranch(), depth+1);
+		visit(branch.getRightBranch(), depth+1);
+	}
+	/**
+	 * @return the number of inner nodes
+	 */
+	public int getBranches() {
+		return branches;
+	}
+	/**
+	 * @return the number of leaf nodes
+	 */
+	public int getLeaves() {
+		return leaves;
+	}
+	/**
+	 * @return the total number of walls, split walls count for each part
+	 */
+	public int getWalls() {
+		return walls;
+	}
+	/**
+	 * @return the depth of the tree, 0 for a single leaf
+	 */
+	public int getMaxDepth() {
+		return maxDepth;
+	}
+	/**
+	 * @return the average depth of leaves
+	 */
+	public double getAverageLeafDepth() {
+		return (double) sumLeafDepth / leaves;
+	}
+	/**
+	 * @return the number of walls in the largest leaf
+	 */
+	public int getMaxLeafSize() {
+		return maxLeafSize;
+	}
+	/**
+	 * @return the average number of walls per leaf
+	 */
+	public double getAverageLeafSize() {
+		return (double) walls / leaves;
+	}
+	@Override
+	public String toString() {
+		return "branches=" + branches + ", leaves=" + leaves + ", walls=" + walls
+				+ ", depth=" + maxDepth + String.format(", avg leaf depth=%.1f", getAverageLeafDepth())
+				+ ", max leaf size=" + maxLeafSize + String.format(", avg leaf size=%.2f", getAverageLeafSize());
+	}
+}
@@ -24,6 +24,9 @@ package com.example.amazebyconnormackinnon.generation;
  */
 public enum CardinalDirection {
 	North, East, South, West ;
+	// (dx,dy) pairs indexed by ordinal, see getDxDyDirection() for the mapping
+	private static final int[] DX = { 0, 1, 0, -1 };
+	private static final int[] DY = { -1, 0, 1, 0 };
 	/** 
 	 * Gives the direction that results from a 90 degree clockwise rotation
 	 * applied to the current direction. 
@@ -64,10 +67,11 @@ public enum CardinalDirection {
 	}
 	/**
 	 * Gives a random direction. Values are picked with equal probabilities.
+	 * @param random the random number stream to draw from
 	 * @return a random direction, distribution is uniform
 	 */
-	public CardinalDirection randomDirection() {
-		int i = SingleRandom.getRandom().nextIntWithinInterval(0, 3) ;
+	public CardinalDirection randomDirection(RandomStream random) {
+		int i = random.nextIntWithinInterval(0, 3) ;
 		switch(i) {
 		case 0 : 
 			return CardinalDirection.North ;
@@ -146,6 +150,22 @@ public enum CardinalDirection {
 		}
 		return result ;
 	}
+	/**
+	 * Gives the x component of the (dx,dy) pair for the current direction.
+	 * Same as getDxDyDirection()[0] but without allocating an array.
+	 * @return dx in {-1,0,1}
+	 */
+	public int getDx() {
+		return DX[ordinal()];
+	}
+	/**
+	 * Gives the y component of the (dx,dy) pair for the current direction.
+	 * Same as getDxDyDirection()[1] but without allocating an array.
+	 * @return dy in {-1,0,1}
+	 */
+	public int getDy() {
+		return DY[ordinal()];
+	}
 	/**
 	 * Maps the given angle to the closest (dx,dy) pair
 	 * @return (dx,dy) pair, dx,dy in {-1,0,1}
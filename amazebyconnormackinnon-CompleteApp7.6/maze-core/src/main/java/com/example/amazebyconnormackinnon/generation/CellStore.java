@@ -0,0 +1,104 @@
+package com.example.amazebyconnormackinnon.generation;
+
+/**
+ * A CellStore holds the encoded values for all cells of a floorplan.
+ * The Floorplan class owns the encoding of wallboards, borders and flags
+ * into bits, a CellStore merely provides the memory for it.
+ * 
+ * Cells are addressed with a single index in row-major order, i.e.
+ * the cell at position (x,y) of a floorplan with a given width has 
+ * index {@code y*width+x}. Consecutive cells of a row are adjacent in memory
+ * which matters for the loops that scan a floorplan row by row.
+ * 
+ * Methods perform no range checks beyond the ones of the underlying array.
+ * 
+ * @see Floorplan
+ */
+public abstract class CellStore {
+	/**
+	 * Gives the number of cells in this store.
+	 * @return the number of cells, {@code width*height} for a floorplan
+	 */
+	public abstract int size();
+	/**
+	 * Gets the value of the cell with the given index.
+	 * @param index of cell, {@code 0 <= index < size()}
+	 * @return the encoded value of that cell
+	 */
+	public abstract int get(int index);
+	/**
+	 * Sets the value of the cell with the given index.
+	 * @param index of cell, {@code 0 <= index < size()}
+	 * @param value the encoded value for that cell
+	 */
+	public abstract void set(int index, int value);
+	/**
+	 * Sets the bits of the given mask to one for the cell with the given index.
+	 * @param index of cell, {@code 0 <= index < size()}
+	 * @param mask the bits to set
+	 */
+	public void setBits(int index, int mask) {
+		set(index, get(index) | mask);
+	}
+	/**
+	 * Sets the bits of the given mask to zero for the cell with the given index.
+	 * @param index of cell, {@code 0 <= index < size()}
+	 * @param mask the bits to clear
+	 */
+	public void clearBits(int index, int mask) {
+		set(index, get(index) & ~mask);
+	}
+	/**
+	 * Tells if at least one bit of the given mask is set for the cell with the given index.
+	 * @param index of cell, {@code 0 <= index < size()}
+	 * @param mask the bits to check
+	 * @return true if {@code (value & mask) != 0}, false otherwise
+	 */
+	public boolean hasAnyBit(int index, int mask) {
+		return (get(index) & mask) != 0;
+	}
+	/**
+	 * Copies a consecutive sequence of cell values into the given array.
+	 * @param from index of the first cell to copy
+	 * @param dest the array to copy the values to
+	 * @param destPos the first position in dest to write to
+	 * @param length the number of cells to copy
+	 */
+	public void copyTo(int from, int[] dest, int destPos, int length) {
+		for (int i = 0; i < length; i++) {
+			dest[destPos+i] = get(from+i);
+		}
+	}
+	/**
+	 * Overwrites a consecutive sequence of cells with values from the given array.
+	 * @param src the array to copy the values from
+	 * @param srcPos the first position in src to read from
+	 * @param to index of the first cell to overwrite
+	 * @param length the number of cells to copy
+	 */
+	public void copyFrom(int[] src, int srcPos, int to, int length) {
+		for (int i = 0; i < length; i++) {
+			set(to+i, src[srcPos+i]);
+		}
+	}
+	/**
+	 * Creates an independent duplicate of this store.
+	 * @return a store of the same kind with the same content
+	 */
+	public abstract CellStore copy();
+	/**
+	 * Tells if the given store holds the same values as this one.
+	 * The kind of store does not matter.
+	 * @param other the store to compare with, must not be null
+	 * @return true if both stores have the same size and content, false otherwise
+	 */
+	public boolean hasSameContent(CellStore other) {
+		if (size() != other.size())
+			return false;
+		for (int i = 0; i < size(); i++) {
+			if (get(i) != other.get(i))
+				return false;
+		}
+		return true;
+	}
+}
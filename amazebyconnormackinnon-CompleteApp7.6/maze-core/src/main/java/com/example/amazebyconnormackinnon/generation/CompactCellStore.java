@@ -0,0 +1,75 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.Arrays;
+
+/**
+ * CellStore that keeps 16 bits per cell in a single flat char array.
+ * The Floorplan encoding uses bits 0 to 9 only (wallboards, visited flag, 
+ * bounds and the in-room flag), so 16 bits are sufficient and the store
+ * takes half the memory of an IntCellStore. 
+ * More cells fit into a cache line which helps loops that scan 
+ * the walls of large mazes row by row.
+ * 
+ * Values that do not fit into 16 bits are rejected with an IllegalArgumentException,
+ * they would otherwise be truncated silently and corrupt the floorplan.
+ * 
+ * @see CellStore
+ * @see Floorplan
+ */
+public final class CompactCellStore extends CellStore {
+	private static final int MASK = 0xFFFF; // bits that fit into a char
+	private final char[] values; // cell values in row-major order
+
+	/**
+	 * Constructor for a store with all values being 0.
+	 * @param size the number of cells, {@code 0 < size}
+	 */
+	public CompactCellStore(int size) {
+		values = new char[size];
+	}
+	/**
+	 * Constructor that takes over the given array.
+	 * @param values cell values in row-major order, shared not copied
+	 */
+	private CompactCellStore(char[] values) {
+		this.values = values;
+	}
+	@Override
+	public int size() {
+		return values.length;
+	}
+	@Override
+	public int get(int index) {
+		return values[index];
+	}
+	@Override
+	public void set(int index, int value) {
+		if ((value & ~MASK) != 0)
+			throw new IllegalArgumentException("Value " + value + " does not fit into 16 bits");
+		values[index] = (char) value;
+	}
+	@Override
+	public void setBits(int index, int mask) {
+		if ((mask & ~MASK) != 0)
+			throw new IllegalArgumentException("Mask " + mask + " does not fit into 16 bits");
+		values[index] |= mask;
+	}
+	@Override
+	public void clearBits(int index, int mask) {
+		values[index] &= ~mask;
+	}
+	@Override
+	public boolean hasAnyBit(int index, int mask) {
+		return (values[index] & mask) != 0;
+	}
+	@Override
+	public CellStore copy() {
+		return new CompactCellStore(values.clone());
+	}
+	@Override
+	public boolean hasSameContent(CellStore other) {
+		if (other instanceof CompactCellStore)
+			return Arrays.equals(values, ((CompactCellStore)other).values);
+		return super.hasSameContent(other);
+	}
+}
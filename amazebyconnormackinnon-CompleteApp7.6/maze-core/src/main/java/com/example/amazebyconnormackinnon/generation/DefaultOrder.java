@@ -3,11 +3,10 @@
  */
 package com.example.amazebyconnormackinnon.generation;
 
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.example.amazebyconnormackinnon.gui.Constants;
-
 /**
  * DefaultOrder provides a basic implementation for an order to 
  * interact with a MazeFactory by implementing the Order interface
@@ -111,8 +110,10 @@ public class DefaultOrder implements Order {
 	 * to completion or completed.
 	 * This field is set by the MazeFactory and updated
 	 * during the maze generation.
+	 * Builder threads update it without locks, the UI reads it
+	 * as often as it draws a frame.
 	 */
-	int progress;
+	final AtomicInteger progress = new AtomicInteger();
 	
 	/**
 	 * Constructor that initializes fields to meaningful default values.
@@ -172,7 +173,7 @@ public class DefaultOrder implements Order {
     	perfectMaze = perfect;
     	this.seed = seed;
     	this.maze = maze;
-    	this.progress = progress; // do not use updateProgress method, subject to override in subclasses!
+    	this.progress.set(progress); // do not use updateProgress method, subject to override in subclasses!
     	LOGGER.fine("Constructor asks for maze of size " + skillLevel 
     			+ ", algorithm " + builder 
     			+ ", perfect? " + perfectMaze 
@@ -196,9 +197,9 @@ public class DefaultOrder implements Order {
 	 */
 	public void setSkillLevel(int skillLevel) {
 		LOGGER.fine("receive skill level info: " + skillLevel);
-		// Note: skillLevel is used as an index for arrays such as Constants.SKILL_X.
+		// Note: skillLevel is used as an index for arrays such as MazeConstants.SKILL_X.
 		// These arrays only support 0,1, ..., 15. 
-		if (0 <= skillLevel && skillLevel <= Constants.MAX_SKILL_LEVEL) {
+		if (0 <= skillLevel && skillLevel <= MazeConstants.MAX_SKILL_LEVEL) {
 			this.skillLevel = skillLevel;
 		}
 		else {
@@ -283,23 +284,28 @@ public class DefaultOrder implements Order {
 	 * @return the current level of progress that has been made so far, {@literal 0 <= value <= 100}
 	 */
 	public int getProgress() {
-		LOGGER.fine("provide info about progress (completion of maze generation): " + progress);
-		return progress;
+		return progress.get();
 	}
 	/**
 	 * Provides an update for the current level of progress that has been made so far in the maze generation. 
+	 * Several threads may report progress for the same maze and their values
+	 * can arrive out of order, so the progress only increases.
 	 * @param percentage the current level of progress,  {@literal 0 <= value <= 100}
 	 */
 	@Override
 	public void updateProgress(int percentage) {
-		LOGGER.fine("receive info about progress (completion of maze generation): " + percentage);
-		if (0 <= percentage && percentage <= 100) {
-			progress = percentage;
-		}
-		else {
-			progress = (percentage < 0) ? 0 : 100;
+		if (LOGGER.isLoggable(Level.FINE))
+			LOGGER.fine("receive info about progress (completion of maze generation): " + percentage);
+		if (percentage < 0 || 100 < percentage) {
 			LOGGER.severe("range violation, " + percentage + " outside 0,1,...,100 range. Used closest legit value for mitigation.");
+			percentage = (percentage < 0) ? 0 : 100;
 		}
+		int last;
+		do {
+			last = progress.get();
+			if (percentage <= last)
+				return;
+		} while (!progress.compareAndSet(last, percentage));
 	}
 
 }
@@ -0,0 +1,85 @@
+package com.example.amazebyconnormackinnon.generation;
+
+/**
+ * A disjoint-set forest (union-find) over the elements 0 to size-1.
+ * Maze builders use it to track which cells are already connected
+ * such that removing a wallboard between two cells of the same set 
+ * can be recognized as creating a loop.
+ * 
+ * The forest is kept in primitive arrays. Find operations compress paths
+ * and union operations attach the tree of lower rank to the other one
+ * which makes each operation run in nearly constant amortized time.
+ * 
+ * Cell (x,y) of a floorplan is usually mapped to element {@code y*width+x}.
+ */
+public class DisjointSets {
+	private final int[] parent; // parent[i] == i iff i is the representative of its set
+	private final byte[] rank; // upper bound for the height of the tree rooted at i
+	private int count; // current number of sets
+
+	/**
+	 * Constructor for a forest where each element is a set of its own.
+	 * @param size the number of elements, {@code 0 < size}
+	 */
+	public DisjointSets(int size) {
+		parent = new int[size];
+		rank = new byte[size];
+		for (int i = 0; i < size; i++) {
+			parent[i] = i;
+		}
+		count = size;
+	}
+	/**
+	 * Finds the representative of the set that contains the given element.
+	 * Compresses the path by pointing all elements on it to their grandparent.
+	 * @param i element, {@code 0 <= i < size}
+	 * @return the representative of the set of i
+	 */
+	public int find(int i) {
+		while (parent[i] != i) {
+			parent[i] = parent[parent[i]]; // path halving
+			i = parent[i];
+		}
+		return i;
+	}
+	/**
+	 * Merges the sets that contain the given elements.
+	 * @param a element, {@code 0 <= a < size}
+	 * @param b element, {@code 0 <= b < size}
+	 * @return true if a and b were in different sets before, false if nothing changed
+	 */
+	public boolean union(int a, int b) {
+		int ra = find(a);
+		int rb = find(b);
+		if (ra == rb)
+			return false;
+		if (rank[ra] < rank[rb]) {
+			parent[ra] = rb;
+		}
+		else if (rank[ra] > rank[rb]) {
+			parent[rb] = ra;
+		}
+		else {
+			parent[rb] = ra;
+			rank[ra]++;
+		}
+		count--;
+		return true;
+	}
+	/**
+	 * Tells if the given elements belong to the same set.
+	 * @param a element, {@code 0 <= a < size}
+	 * @param b element, {@code 0 <= b < size}
+	 * @return true if a and b are in the same set, false otherwise
+	 */
+	public boolean isConnected(int a, int b) {
+		return find(a) == find(b);
+	}
+	/**
+	 * Gives the current number of disjoint sets.
+	 * @return the number of sets, {@code 1 <= count <= size}
+	 */
+	public int getCount() {
+		return count;
+	}
+}
@@ -69,6 +69,23 @@ public class Distance {
 	// this could lead to inconsistent settings between MazeContainer and Distance object at runtime.
 	// TODO: avoid redundancy of start position, remove startPosition from Distance, replease with getPositionWithMaxDistance
 	
+	/**
+	 * Lists the procedures that are available to compute distance values.
+	 * BFS performs a single breadth-first pass from the exit position,
+	 * its running time is linear in the number of cells.
+	 * Legacy is the original procedure that pushes values along depth-first
+	 * paths and then sweeps the whole matrix till it reaches a fixpoint.
+	 * Both deliver the same distance values, the same exit and the same
+	 * starting position for a given floorplan. The legacy procedure
+	 * is kept to compare results and running times.
+	 */
+	public enum Engine {BFS, Legacy};
+	/**
+	 * The procedure used by {@link #computeDistances(Floorplan) computeDistances},
+	 * BFS by default.
+	 */
+	private Engine engine = Engine.BFS;
+	
 	/**
 	 * Constructor
 	 * @param w is the width of the maze in the horizontal direction
@@ -133,6 +150,21 @@ public class Distance {
 	public int getDistanceValue(int x, int y) {
 		return dists[x][y] ;
 	}
+	/**
+	 * Gives the procedure that is used to compute distance values.
+	 * @return the current engine, BFS by default
+	 */
+	public Engine getEngine() {
+		return engine;
+	}
+	/**
+	 * Selects the procedure to compute distance values with
+	 * in subsequent calls of {@link #computeDistances(Floorplan) computeDistances}.
+	 * @param engine the engine to use, can not be null
+	 */
+	public void setEngine(Engine engine) {
+		this.engine = engine;
+	}
 	/**
 	 * Compute distances for given cells object of a maze.
 	 * The method determines an exit position for the maze
@@ -147,10 +179,13 @@ public class Distance {
 	 * Once called, client classes can use {@link #getDistanceValue(int, int)
 	 * getDistanceValue()}, {@link #getExitPosition() getExitPosition()}, 
 	 * and {@link #getStartPosition() getStartPosition()}.
+	 * The computation checks for an interrupt at regular intervals
+	 * such that a cancelled maze generation stops quickly.
 	 * @param cells with information on wallboards for a maze, can not be null, read only
 	 * @return exit position somewhere on the  border
+	 * @throws InterruptedException if the thread is interrupted during the computation
 	 */
-	public int[] computeDistances(Floorplan cells) {
+	public int[] computeDistances(Floorplan cells) throws InterruptedException {
 		// constraint: cells must be of size (width x height)
 		
 		// Step 1: find a suitable exit position
@@ -158,12 +193,22 @@ public class Distance {
 		// compute temporary distances for a starting point 
 		// (x,y) = (width/2,height/2) 
 		// which is located in the center of the maze
-		computeDists(cells, width/2, height/2);
+		if (Engine.Legacy == engine) {
+			computeDists(cells, width/2, height/2);
+		}
+		else {
+			computeDistsBreadthFirst(cells, width/2, height/2);
+		}
 		// figure out which position is the farthest on the border 
 		// to find a candidate for the exit position
 		exitPosition = getPositionWithMaxDistanceOnBorder();
 		// Step 2: compute distances with regards to the exit position
-		computeDists(cells, exitPosition[0], exitPosition[1]);
+		if (Engine.Legacy == engine) {
+			computeDists(cells, exitPosition[0], exitPosition[1]);
+		}
+		else {
+			computeDistsBreadthFirst(cells, exitPosition[0], exitPosition[1]);
+		}
 		return exitPosition ;
 	}
 
@@ -304,14 +349,71 @@ public class Distance {
 	 * in matrix dists.
 	 */
 	static final int INFINITY = Integer.MAX_VALUE; 
+	/**
+	 * Number of positions between two checks for an interrupt, a power of 2.
+	 */
+	static final int CHECK_INTERVAL = 4096;
 
+	/**
+	 * Computes distances to the given position (ax,ay) for all cells in array dists
+	 * with a single breadth-first search that starts at (ax,ay).
+	 * Each position is put on the work queue exactly once, namely when it 
+	 * receives its final value, so the effort is linear in the number of cells.
+	 * The queue holds positions encoded as {@code x*height+y}.
+	 * A neighbor is reachable if there is no wallboard on the side of the current position,
+	 * which is the same criterion the legacy procedure applies.
+	 * @param cells with information on wallboards for a maze, can not be null
+	 * @param ax, position, x coordinate
+	 * @param ay, position, y coordinate
+	 * @throws InterruptedException if the thread is interrupted, checked every CHECK_INTERVAL positions
+	 */
+	private void computeDistsBreadthFirst(Floorplan cells, int ax, int ay) throws InterruptedException {
+		setAllDistanceValues(INFINITY) ;
+		final int[] queue = new int[width*height];
+		int head = 0; // next position to take from the queue
+		int tail = 0; // next free slot in the queue
+		dists[ax][ay] = 1;
+		queue[tail++] = ax*height + ay;
+		while (head < tail) {
+			if (0 == (head & (CHECK_INTERVAL-1)))
+				MazeBuilder.checkInterrupted();
+			final int pos = queue[head++];
+			final int x = pos / height;
+			final int y = pos - x*height;
+			final int nextDistance = dists[x][y] + 1;
+			// check all four directions, a neighbor that has a finite value already 
+			// got it from a position that is at least as close to the exit
+			if (0 < y && dists[x][y-1] == INFINITY && cells.hasNoWall(x, y, CardinalDirection.North)) {
+				dists[x][y-1] = nextDistance;
+				queue[tail++] = pos-1;
+			}
+			if (x+1 < width && dists[x+1][y] == INFINITY && cells.hasNoWall(x, y, CardinalDirection.East)) {
+				dists[x+1][y] = nextDistance;
+				queue[tail++] = pos+height;
+			}
+			if (y+1 < height && dists[x][y+1] == INFINITY && cells.hasNoWall(x, y, CardinalDirection.South)) {
+				dists[x][y+1] = nextDistance;
+				queue[tail++] = pos+1;
+			}
+			if (0 < x && dists[x-1][y] == INFINITY && cells.hasNoWall(x, y, CardinalDirection.West)) {
+				dists[x-1][y] = nextDistance;
+				queue[tail++] = pos-height;
+			}
+		}
+		if (tail < width*height)
+			System.out.println("Distance: ERROR: All positions should have a finite distance to the exit, counted: " + (width*height-tail) );
+		assert (tail == width*height) : 
+			"All positions should have a finite distance to the exit";
+	}
 	/**
 	 * Computes distances to the given position (ax,ay) for all cells in array dists.
+	 * This is the legacy procedure, see {@link Engine}.
 	 * @param cells with information on wallboards for a maze, can not be null
 	 * @param ax, position, x coordinate
 	 * @param ay, position, y coordinate
+	 * @throws InterruptedException if the thread is interrupted, checked once per column of a sweep
 	 */
-	private void computeDists(Floorplan cells, int ax, int ay) {
+	private void computeDists(Floorplan cells, int ax, int ay) throws InterruptedException {
 		//int x, y;
 		// initialize the distance array with a value for infinity 
 		setAllDistanceValues(INFINITY) ;
@@ -331,6 +433,7 @@ public class Distance {
 		do {
 			// check all entries in the distance array
 			for (int x = 0; x != width; x++) {
+				MazeBuilder.checkInterrupted();
 				for (int y = 0; y != height; y++) 
 				{
 					if (dists[x][y] == INFINITY) {
@@ -11,7 +11,7 @@ import java.util.NoSuchElementException;
  * with a 2 dimensional grid and it encapsulates access to each 
  * cell in that grid.
  *  
- * The internal two-dimensional array matches with a grid of cells as follows:
+ * The internal cell storage matches with a grid of cells as follows:
  * floorplan[0,y] form the left border, hence there is a wallboard on  left.
  * floorplan[width-1,y] form the right border, hence there is a wallboard on right.
  * floorplan[x,0] form the top border, hence there is a wallboard on top.
@@ -45,6 +45,8 @@ import java.util.NoSuchElementException;
  * to set individual bits in a 4 byte/32 bit integer 
  * and thus error prone. The encapsulation within this class 
  * localizes all bit operations for this encoding.
+ * The values themselves are kept in a CellStore as a single 
+ * array in row-major order, cell (x,y) has index {@code y*width+x}.
  * 
  * This code is refactored code from Maze.java by Paul Falstad, www.falstad.com, Copyright (C) 1998, all rights reserved
  * Paul Falstad granted permission to modify and use code for teaching purposes.
@@ -87,18 +89,30 @@ public class Floorplan {
 	//south = (0,1)
 	//west  = (-1,0)
 	//north = (0,-1)
+	// wallboard bit for each cardinal direction, indexed by ordinal: North, East, South, West
+	private static final int[] CW_FOR_DIRECTION = { CW_TOP, CW_RIGHT, CW_BOT, CW_LEFT };
+	// wallboard bit for each (dx,dy) pair, indexed by (dy+1)*3+(dx+1), 0 for illegal pairs
+	private static final int[] CW_FOR_DXDY = { 
+			0, CW_TOP, 0, 
+			CW_LEFT, 0, CW_RIGHT, 
+			0, CW_BOT, 0 };
+	
+	/**
+	 * Selects the memory layout for the cell values.
+	 * Int: 32 bits per cell, the default.
+	 * Compact: 16 bits per cell, half the memory, intended for very large mazes.
+	 * Both layouts behave the same for all methods of this class.
+	 */
+	public enum Storage {Int, Compact};
 	
 	private int width;
 	private int height ;
-	private int[][] cells; // width x height array of cells, cells[width][height]
+	private Storage storage ; // the memory layout of cells
+	private CellStore cells; // width x height cells in row-major order
 	// each cell contains an integer which encodes presence/absence of wallboards
-	// cells[i][j] can be read as (i,j) coordinates much like (x,y) coordinates
-	// where the first dimension x grows towards the right and 
-	// the second dimension y grows towards the bottom
-	// as if the (0,0) position is in the top-left corner.
-	// cells[i][j] is not intuitive in terms of rows and column indices in matrix notation 
-	// as position (i,j) would be column i and row j which is opposite to the normal  
-	// use of rows and columns indices for matrices.
+	// position (x,y) is stored at index y*width+x where x grows towards the right and 
+	// y grows towards the bottom as if the (0,0) position is in the top-left corner.
+	// Cells of a row are adjacent such that row by row scans walk through memory sequentially.
 	
 	/**
 	 * Constructor
@@ -106,9 +120,20 @@ public class Floorplan {
 	 * @param h height, {@code 0 < h}
 	 */
 	public Floorplan(int w, int h) {
+		this(w, h, Storage.Int);
+	}
+	
+	/**
+	 * Constructor with a choice of memory layout for the cell values.
+	 * @param w width, {@code 0 < w}
+	 * @param h height, {@code 0 < h}
+	 * @param storage selects the memory layout, not null
+	 */
+	public Floorplan(int w, int h, Storage storage) {
 		width = w ;
 		height = h ;
-		cells = new int[w][h];
+		this.storage = storage ;
+		cells = (Storage.Compact == storage) ? new CompactCellStore(w*h) : new IntCellStore(w*h);
 	}
 
 	/**
@@ -118,20 +143,35 @@ public class Floorplan {
 	 * precondition input != null
 	 */
 	public Floorplan(int[][] input){
-		// Alternative, 2d array is a 1d array with arrays as elements
-		width = input.length ;
-		height = input[0].length ;
-		cells = new int[width][];
-		for(int i = 0; i < width; i++)
-		    cells[i] = input[i].clone(); // clone row
-		/* Basic version
+		// input is organized as input[x][y], i.e., an array of columns
 		this(input.length, input[0].length);
-		for (int i = 0; i < width; i++) {
-			for (int j = 0; j < height; j++) {
-				cells[i][j] = input[i][j];
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				cells.set(index(x, y), input[x][y]);
 			}
 		}
-		*/
+	}
+	
+	/**
+	 * Gives the memory layout used for the cell values.
+	 * @return the storage type
+	 */
+	public Storage getStorage() {
+		return storage ;
+	}
+	
+	/**
+	 * Calculates the position of cell (x,y) in the cell store.
+	 * @param x coordinate of cell
+	 * @param y coordinate of cell
+	 * precondition {@code 0 <= x < width, 0 <= y < height}
+	 * @return index of cell (x,y) in row-major order
+	 */
+	private int index(int x, int y) {
+		// a flat array does not catch x out of range, so check it here
+		assert (0 <= x && x < width) && (0 <= y && y < height) : 
+			"Position (" + x + "," + y + ") outside of " + width + "x" + height + " floorplan";
+		return y*width+x;
 	}
 	
 	/**
@@ -143,10 +183,8 @@ public class Floorplan {
 	public void initialize() {
 		int x, y;
 		// Step 1: erect wallboards everywhere, reset visited flag
-		for (x = 0; x < width; x++) {
-			for (y = 0; y < height; y++) {
-				setBitToOne(x, y, (CW_VISITED | CW_ALL));
-			}
+		for (int i = 0; i < width*height; i++) {
+			cells.setBits(i, (CW_VISITED | CW_ALL));
 		} 
 		// Step 2: mark wallboards on exterior walls as a border
 		// Assumption: (0,0) at top-left corner
@@ -179,13 +217,7 @@ public class Floorplan {
 		final Floorplan o = (Floorplan)other ; // type cast safe after checking class objects
 		if ((width != o.width)||(height != o.height))
 			return false ;
-		for (int i = 0; i < width; i++) {
-			for (int j = 0; j < height; j++) {
-				if (cells[i][j] != o.cells[i][j])
-					return false ;
-			}
-		}
-		return true ;
+		return cells.hasSameContent(o.cells) ;
 	}
 	/**
 	 * Hashcode method is not implemented as it is not needed here.
@@ -197,6 +229,29 @@ public class Floorplan {
 		  assert false : "hashCode not designed";
 		  return 42; // any arbitrary constant will do
 	}
+	/**
+	 * Computes a 64 bit FNV-1a hash of the dimensions and the values of all cells.
+	 * Floorplans that are equal have the same hash, independent of their storage.
+	 * Unlike hashCode, the value is meant to be stored: it identifies the content
+	 * of a maze and lets a regenerated maze be checked against the original one.
+	 * @return the hash of the content of this floorplan
+	 */
+	public long getContentHash() {
+		long hash = FNV_OFFSET_BASIS;
+		hash = (hash ^ width) * FNV_PRIME;
+		hash = (hash ^ height) * FNV_PRIME;
+		final int[] row = new int[width];
+		for (int y = 0; y < height; y++) {
+			getRow(y, row);
+			for (int x = 0; x < width; x++) {
+				hash = (hash ^ row[x]) * FNV_PRIME;
+			}
+		}
+		return hash;
+	}
+	// constants of the 64 bit FNV-1a hash
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	private static final long FNV_PRIME = 0x100000001b3L;
 	/**
 	 * Get the value of a cell at the given position (x,y).
 	 * @param x coordinate of cell
@@ -206,7 +261,27 @@ public class Floorplan {
 	 */
 	public int getValueOfCell( int x, int y )
 	{
-		return cells[x][y] ;
+		return cells.get(index(x, y)) ;
+	}
+	/**
+	 * Copies the values of all cells in row y into the given array.
+	 * Element x of the array receives the same value as getValueOfCell(x,y).
+	 * This is cheaper than calling getValueOfCell for each cell of a row.
+	 * @param y coordinate of the row, {@code 0 <= y < height}
+	 * @param row array to copy values to, {@code width <= row.length}
+	 */
+	public void getRow(int y, int[] row) {
+		cells.copyTo(index(0, y), row, 0, width);
+	}
+	/**
+	 * Overwrites the values of all cells in row y with the values
+	 * from the given array. Element x of the array becomes the value
+	 * for cell (x,y), the encoding is the same as for getValueOfCell.
+	 * @param y coordinate of the row, {@code 0 <= y < height}
+	 * @param row array to copy values from, {@code width <= row.length}
+	 */
+	public void setRow(int y, int[] row) {
+		cells.copyFrom(row, 0, index(0, y), width);
 	}
 	
 	/**
@@ -220,9 +295,9 @@ public class Floorplan {
 	public boolean canTearDown(Wallboard wallboard) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDxDyDirection() ;
-		int dx = d[0];
-		int dy = d[1];
+		CardinalDirection cd = wallboard.getDirection() ;
+		int dx = cd.getDx();
+		int dy = cd.getDy();
 		// borders limit rooms (but for potential doors) and the outside limit of the maze
 		if (hasBorder(x, y, dx, dy))
 			return false;
@@ -241,9 +316,9 @@ public class Floorplan {
 	public boolean isPartOfBorder(Wallboard wallboard) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDxDyDirection() ;
-		int dx = d[0];
-		int dy = d[1];
+		CardinalDirection cd = wallboard.getDirection() ;
+		int dx = cd.getDx();
+		int dy = cd.getDy();
 		// borders limit rooms (but for potential doors) 
 		// and the outside limit of the maze
 		return hasBorder(x, y, dx, dy);
@@ -422,8 +497,9 @@ public class Floorplan {
 	 * @param ry 1st corner, y coordinate
 	 * @param rxl 2nd corner, x coordinate
 	 * @param ryl 2nd corner, y coordinate
+	 * @param random the random number stream to pick doors with
 	 */
-	public void markAreaAsRoom(int rw, int rh, int rx, int ry, int rxl, int ryl) {
+	public void markAreaAsRoom(int rw, int rh, int rx, int ry, int rxl, int ryl, RandomStream random) {
 		// Step 1: 
 		// clear all cells in area of room from all wallboards and borders
 		// mark all cells in area as being inside the room
@@ -446,7 +522,6 @@ public class Floorplan {
 		// so a maze generation algorithm can identify
 		// these wallboards and delete them to get into the room
 		int numBoards = (rw+rh)*2; // counter for the total number of wallboards
-		SingleRandom random = SingleRandom.getRandom() ;
 		// pick at most 5 wallboards
 		for (int ct = 0; ct != 5; ct++) { 
 			int door = random.nextIntWithinInterval(0, numBoards-1); // pick a random wallboard
@@ -583,12 +658,14 @@ public class Floorplan {
 	public void addWallboard(Wallboard wallboard, boolean internalWall) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDxDyDirection() ;
+		CardinalDirection cd = wallboard.getDirection() ;
+		int dx = cd.getDx();
+		int dy = cd.getDy();
 		// add wallboard on (x,y)
-		setWallToOne(x, y, d[0], d[1]);
+		setWallToOne(x, y, dx, dy);
 		// add same wallboard but for adjacent cell
 		if (internalWall)
-			setWallToOne(x+d[0], y+d[1], -d[0], -d[1]);
+			setWallToOne(x+dx, y+dy, -dx, -dy);
 	}
 
 	/**
@@ -603,9 +680,9 @@ public class Floorplan {
 	public void deleteWallboard(Wallboard wallboard) {
 		int x = wallboard.getX();
 		int y = wallboard.getY();
-		int[] d = wallboard.getDirection().getDxDyDirection() ;
-		int dx = d[0];
-		int dy = d[1];
+		CardinalDirection cd = wallboard.getDirection() ;
+		int dx = cd.getDx();
+		int dy = cd.getDy();
 		// delete wallboard on (x,y)
 		setWallToZero(x, y, dx, dy);
 		// delete same wallboard but for adjacent cell
@@ -699,7 +776,7 @@ public class Floorplan {
 	 * @return true if (x,y) position has wallboard in the given direction
 	 */
 	public boolean hasWall(int x, int y, CardinalDirection dir) {
-		return hasMaskedBitsTrue(x, y, getCWConstantForDirection(dir));
+		return cells.hasAnyBit(index(x, y), CW_FOR_DIRECTION[dir.ordinal()]);
 	}
 	/**
 	 * Tells if the given position has no wallboard in the given direction.
@@ -712,7 +789,7 @@ public class Floorplan {
 	 * @return true if (x,y) position has no wallboard in the given direction
 	 */
 	public boolean hasNoWall(int x, int y, CardinalDirection dir) {
-		return !hasMaskedBitsTrue(x, y, getCWConstantForDirection(dir));
+		return !cells.hasAnyBit(index(x, y), CW_FOR_DIRECTION[dir.ordinal()]);
 	}
 	/**
 	 * Gives the matching bit encoded value,
@@ -729,18 +806,8 @@ public class Floorplan {
 		static final int CW_LEFT = 4; // 2^2
 		static final int CW_RIGHT = 8;// 2^3
 		 */
-		switch(dir) {
-		case North : 
-			return CW_TOP; // flipped: CW_TOP ;
-		case East : 
-			return CW_RIGHT ;
-		case South : 
-			return CW_BOT; // flipped CW_BOT ;
-		case West : 
-			return CW_LEFT ;
-		default:
-			throw new RuntimeException("Unsupported value in enum type") ;
-		}
+		// table lookup replaces a switch statement, see CW_FOR_DIRECTION
+		return CW_FOR_DIRECTION[dir.ordinal()];
 	}
 	////////////////// iterator to access continuous sequences of wallboards //////////////////////////////////////////
 	public Iterator<int[]> iterator(int x, int y, CardinalDirection cd) {
@@ -907,7 +974,7 @@ public class Floorplan {
 	 * @param cw_bit like CW_LEFT, CW_RIGHT, CW_TOP, CW_BOTTOM
 	 */
 	private void setBitToZero(int x, int y, int cw_bit) {
-		cells[x][y] &= ~cw_bit;
+		cells.clearBits(index(x, y), cw_bit);
 	}
 	/**
 	 * Sets all wallboard bits to zero for a given cell
@@ -924,10 +991,10 @@ public class Floorplan {
 	// better to directly change client classes
 	//
 	protected boolean hasMaskedBitsTrue(int x, int y, int bitmask) {
-		return (cells[x][y] & bitmask) != 0;
+		return cells.hasAnyBit(index(x, y), bitmask);
 	}
 	protected boolean hasMaskedBitsFalse(int x, int y, int bitmask) {
-		return (cells[x][y] & bitmask) == 0;
+		return !cells.hasAnyBit(index(x, y), bitmask);
 	}
 
 	/**
@@ -949,8 +1016,13 @@ public class Floorplan {
 		return bit;
 		*/
 		// changed to reduce chances for inconsistent mappings
-		CardinalDirection dir = CardinalDirection.getDirection(dx, dy);
-		return getCWConstantForDirection(dir);
+		// CardinalDirection dir = CardinalDirection.getDirection(dx, dy);
+		// return getCWConstantForDirection(dir);
+		// table lookup avoids the detour via CardinalDirection, see CW_FOR_DXDY
+		int bit = (-1 <= dx && dx <= 1 && -1 <= dy && dy <= 1) ? CW_FOR_DXDY[(dy+1)*3+(dx+1)] : 0;
+		if (0 == bit)
+			throw new IllegalArgumentException("Illegal input value for (dx,dy): (" + dx + "," + dy + ")") ;
+		return bit;
 	}
 	/**
 	 * Sets bits to 1 for given bitmask
@@ -959,7 +1031,7 @@ public class Floorplan {
 	 * @param bitmask is the bitmask to use for adding 1's
 	 */
 	private void setBitToOne(int x, int y, int bitmask) {
-		cells[x][y] |= bitmask ;
+		cells.setBits(index(x, y), bitmask) ;
 	}
 
 	///////////////// code for debugging ///////////////////////////////////////
@@ -977,7 +1049,7 @@ public class Floorplan {
 		{
 			prefix = " i:" + i + " j:";
 			for (int j = 0 ; j < height ; j++)
-				s += prefix + j + "=" + cells[i][j] ;
+				s += prefix + j + "=" + cells.get(index(i, j)) ;
 			s += "\n" ;
 		}
 		return s ;
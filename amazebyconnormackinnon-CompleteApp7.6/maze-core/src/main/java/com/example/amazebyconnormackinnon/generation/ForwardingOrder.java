@@ -0,0 +1,48 @@
+package com.example.amazebyconnormackinnon.generation;
+/**
+ * An order that passes every call on to the order of a client.
+ * The factory hands it to a builder in place of the client's order
+ * when it needs to observe progress or delivery, subclasses
+ * override deliver and updateProgress and call the super method.
+ */
+class ForwardingOrder implements Order {
+	private final Order client ; // the order placed by the client
+
+	/**
+	 * Constructor
+	 * @param client the order that receives all calls
+	 */
+	ForwardingOrder(Order client) {
+		this.client = client ;
+	}
+	/**
+	 * @return the order placed by the client
+	 */
+	Order getClient() {
+		return client ;
+	}
+	@Override
+	public int getSkillLevel() {
+		return client.getSkillLevel();
+	}
+	@Override
+	public Builder getBuilder() {
+		return client.getBuilder();
+	}
+	@Override
+	public boolean isPerfect() {
+		return client.isPerfect();
+	}
+	@Override
+	public int getSeed() {
+		return client.getSeed();
+	}
+	@Override
+	public void deliver(Maze mazeConfig) {
+		client.deliver(mazeConfig);
+	}
+	@Override
+	public void updateProgress(int percentage) {
+		client.updateProgress(percentage);
+	}
+}
@@ -0,0 +1,181 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class computes the progress of a maze generation and publishes it to the order.
+ * Each phase of MazeBuilder.run covers a share of the range from 0 to 99
+ * that matches its measured share of the generation time, 100 is reserved for delivery.
+ * Within a phase, progress is reported as units of work done out of an expected total,
+ * e.g. the BSP construction counts the walls that end up in leaves.
+ *
+ * Weights are percentages of the total generation time measured with the
+ * telemetry for skill levels 6 to 14, where generation takes long enough
+ * for a progress bar to matter. The BSP construction dominates with about 85 percent.
+ *
+ * The published value is kept in an atomic integer that only increases,
+ * so threads of the BSP construction report without locks.
+ * Only a thread that raises the value forwards it to the order, at most
+ * 100 times per maze, and does so under a lock such that the order
+ * receives increasing values, each at most once.
+ */
+final class GenerationProgress {
+	/**
+	 * The phases of a maze generation with their relative cost.
+	 */
+	enum Phase {
+		Initialize("initialize", 1),
+		Rooms("rooms", 1),
+		Pathways("pathways", 0), // depends on the builder, see pathwaysWeight
+		Distances("distances", 3),
+		Walls("walls", 3),
+		BSP("bsp", 85);
+
+		private final String label;
+		private final int weight;
+
+		Phase(String label, int weight) {
+			this.label = label;
+			this.weight = weight;
+		}
+		/**
+		 * @return the name of the phase for telemetry
+		 */
+		String getLabel() {
+			return label;
+		}
+	}
+	/**
+	 * Walls are split during the BSP construction, leaves hold
+	 * about 1.15 (Prim, Kruskal, Eller, Boruvka) to 1.3 (DFS) times
+	 * as many walls as the list the construction starts with.
+	 */
+	static final double BSP_SPLIT_FACTOR = 1.2;
+	/**
+	 * Highest value published before delivery.
+	 */
+	private static final int MAX_BEFORE_DELIVERY = 99;
+
+	private final Order order ; // receives the published values
+	private final double[] start = new double[Phase.values().length] ; // start of each phase in percent
+	private final double[] span = new double[Phase.values().length] ; // share of each phase in percent
+	private final AtomicInteger published = new AtomicInteger(-1) ; // highest value computed so far
+	private int forwarded = -1 ; // last value sent to the order, guarded by this
+	private final AtomicLong done = new AtomicLong() ; // units of work done in the current phase
+	private volatile int current ; // ordinal of the current phase
+	private volatile long expected ; // units of work expected for the current phase
+
+	/**
+	 * Constructor
+	 * @param order the order that receives the progress
+	 * @param rooms true if rooms are placed, false otherwise
+	 */
+	GenerationProgress(Order order, boolean rooms) {
+		this.order = order;
+		final int[] weights = new int[Phase.values().length];
+		int total = 0;
+		for (Phase phase : Phase.values()) {
+			if (Phase.Rooms == phase && !rooms)
+				continue;
+			weights[phase.ordinal()] = (Phase.Pathways == phase) ? pathwaysWeight(order.getBuilder()) : phase.weight;
+			total += weights[phase.ordinal()];
+		}
+		double offset = 0;
+		for (Phase phase : Phase.values()) {
+			start[phase.ordinal()] = offset;
+			span[phase.ordinal()] = (double) MAX_BEFORE_DELIVERY * weights[phase.ordinal()] / total;
+			offset += span[phase.ordinal()];
+		}
+	}
+	/**
+	 * Gives the share of the generation of pathways for a builder algorithm.
+	 * Algorithms that merge sets of cells take longer than a plain search.
+	 * @param builder the builder algorithm
+	 * @return the weight of the pathways phase
+	 */
+	private static int pathwaysWeight(Order.Builder builder) {
+		switch (builder) {
+		case DFS:
+			return 4;
+		case Prim:
+			return 5;
+		case Kruskal:
+			return 6;
+		default: // Eller, Boruvka
+			return 10;
+		}
+	}
+
+	/**
+	 * Starts a phase. Must be called by the thread that runs the builder.
+	 * @param phase the phase that starts
+	 * @param work the units of work expected for the phase, 0 if the phase does not report work
+	 */
+	void beginPhase(Phase phase, long work) {
+		done.set(0);
+		expected = work;
+		current = phase.ordinal();
+		publish(start[current]);
+	}
+	/**
+	 * Reports units of work done in the current phase.
+	 * Can be called by several threads at the same time.
+	 * The progress does not exceed the end of the phase if
+	 * the expected work was underestimated.
+	 * @param units the units of work done since the last report
+	 */
+	void worked(long units) {
+		final long total = expected;
+		if (0 >= total)
+			return;
+		final int phase = current;
+		final double fraction = Math.min(1.0, (double) done.addAndGet(units) / total);
+		publish(start[phase] + span[phase] * fraction);
+	}
+	/**
+	 * Ends a phase. Must be called by the thread that runs the builder.
+	 * @param phase the phase that ends
+	 */
+	void endPhase(Phase phase) {
+		publish(start[phase.ordinal()] + span[phase.ordinal()]);
+	}
+	/**
+	 * Publishes 100 right before the maze is delivered,
+	 * as the Order interface promises.
+	 */
+	void finish() {
+		publish(100);
+	}
+	/**
+	 * @return the highest value published so far, -1 if there is none
+	 */
+	int getPublished() {
+		return published.get();
+	}
+
+	/**
+	 * Sends the given progress to the order if it is higher than
+	 * the value sent before.
+	 * Two threads that raise the value one after the other may reach
+	 * the order in reverse order, so the highest value is forwarded
+	 * under the lock and a value that has been overtaken is dropped.
+	 * @param percent the progress in percent
+	 */
+	private void publish(double percent) {
+		final int value = (int) Math.min(percent, 100);
+		int last;
+		do {
+			last = published.get();
+			if (value <= last)
+				return;
+		} while (!published.compareAndSet(last, value));
+		synchronized (this) {
+			final int highest = published.get();
+			if (highest <= forwarded)
+				return;
+			forwarded = highest;
+			order.updateProgress(highest);
+		}
+	}
+}
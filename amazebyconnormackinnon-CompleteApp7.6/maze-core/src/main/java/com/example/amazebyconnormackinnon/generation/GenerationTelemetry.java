@@ -0,0 +1,379 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * This class collects figures on the generation of a single maze:
+ * wall-clock time, CPU time and allocated bytes for every phase
+ * of MazeBuilder.run, the number of walls and the shape of the BSP tree.
+ * A MazeBuilder fills it in if the factory has a TelemetryListener
+ * and hands it to the listener right before it delivers the maze.
+ *
+ * CPU time and allocations are measured on the builder thread.
+ * Large BSP trees are partly built on a fork/join pool, each task of the pool
+ * measures the work of its thread and the figures are added to the phase,
+ * such a phase is marked as pooled. A pool thread that waits for a subtree may
+ * run a task of another maze that is built at the same time, its work is then
+ * counted for the maze of the waiting task.
+ * Values that the thread meter can not provide are -1.
+ *
+ * @see TelemetryListener
+ */
+public class GenerationTelemetry {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(GenerationTelemetry.class.getName());
+	/**
+	 * The meter that reads CPU time and allocations of the builder thread.
+	 */
+	private static volatile ThreadMeter meter = createDefaultMeter();
+	/**
+	 * Values at the beginning of the outermost pool task on the current thread,
+	 * null if the thread does not run a measured task.
+	 */
+	private static final ThreadLocal<long[]> POOL_TASK_START = new ThreadLocal<>();
+
+	// parameters of the order
+	private final int skillLevel;
+	private final Order.Builder builder;
+	private final boolean perfect;
+	private final int seed;
+	// dimensions of the maze
+	private final int width;
+	private final int height;
+	// results of the generation
+	private int rooms ; // number of rooms placed
+	private int walls ; // number of walls before the BSP construction splits them
+	private BSPTreeStatistics tree ; // shape of the BSP tree, null until it is built
+	private final List<Phase> phases = new ArrayList<>();
+	// values at the beginning of the current phase
+	private long phaseWallTime;
+	private long phaseCpuTime;
+	private long phaseAllocatedBytes;
+	// work of pool threads in the current phase, -1 if the meter can not provide it
+	private boolean phasePooled;
+	private long poolCpuTime;
+	private long poolAllocatedBytes;
+
+	/**
+	 * Constructor
+	 * @param order the order for the maze
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 */
+	GenerationTelemetry(Order order, int width, int height) {
+		skillLevel = order.getSkillLevel();
+		builder = order.getBuilder();
+		perfect = order.isPerfect();
+		seed = order.getSeed();
+		this.width = width;
+		this.height = height;
+	}
+
+	/**
+	 * Sets the meter that reads CPU time and allocations of the builder thread.
+	 * @param threadMeter the meter to use, null for the default meter of the JVM
+	 */
+	public static void setThreadMeter(ThreadMeter threadMeter) {
+		meter = (null != threadMeter) ? threadMeter : createDefaultMeter();
+	}
+
+	/**
+	 * Starts to measure a phase on the current thread.
+	 */
+	void beginPhase() {
+		synchronized (this) {
+			phasePooled = false;
+			poolCpuTime = 0;
+			poolAllocatedBytes = 0;
+		}
+		final ThreadMeter threadMeter = meter;
+		phaseAllocatedBytes = threadMeter.getAllocatedBytes();
+		phaseCpuTime = threadMeter.getCpuTimeNanos();
+		phaseWallTime = System.nanoTime();
+	}
+	/**
+	 * Ends the phase that was started last and records its figures.
+	 * @param name the name of the phase
+	 */
+	void endPhase(String name) {
+		final long wallTime = System.nanoTime() - phaseWallTime;
+		final ThreadMeter threadMeter = meter;
+		final long cpuTime = threadMeter.getCpuTimeNanos();
+		final long allocatedBytes = threadMeter.getAllocatedBytes();
+		synchronized (this) {
+			phases.add(new Phase(name, wallTime,
+					sum(difference(cpuTime, phaseCpuTime), poolCpuTime),
+					sum(difference(allocatedBytes, phaseAllocatedBytes), poolAllocatedBytes),
+					phasePooled));
+		}
+	}
+	/**
+	 * Starts to measure a task of the fork/join pool on the current thread.
+	 * A task that runs while the thread waits inside another task is not
+	 * measured on its own, its work is part of the outer task.
+	 * @return true if the task is measured and needs a call of endPoolTask
+	 */
+	boolean beginPoolTask() {
+		if (null != POOL_TASK_START.get())
+			return false;
+		final ThreadMeter threadMeter = meter;
+		POOL_TASK_START.set(new long[] {threadMeter.getCpuTimeNanos(), threadMeter.getAllocatedBytes()});
+		return true;
+	}
+	/**
+	 * Ends the measurement of a pool task and adds its figures to the current phase.
+	 */
+	void endPoolTask() {
+		final long[] start = POOL_TASK_START.get();
+		POOL_TASK_START.remove();
+		final ThreadMeter threadMeter = meter;
+		final long cpuTime = difference(threadMeter.getCpuTimeNanos(), start[0]);
+		final long allocatedBytes = difference(threadMeter.getAllocatedBytes(), start[1]);
+		synchronized (this) {
+			phasePooled = true;
+			poolCpuTime = sum(poolCpuTime, cpuTime);
+			poolAllocatedBytes = sum(poolAllocatedBytes, allocatedBytes);
+		}
+	}
+	/**
+	 * @return the difference of two meter readings, -1 if one of them is not available
+	 */
+	private static long difference(long end, long start) {
+		return (end < 0 || start < 0) ? -1 : end - start;
+	}
+	/**
+	 * @return the sum of two measured values, -1 if one of them is not available
+	 */
+	private static long sum(long a, long b) {
+		return (a < 0 || b < 0) ? -1 : a + b;
+	}
+	void setRooms(int rooms) {
+		this.rooms = rooms;
+	}
+	void setWalls(int walls) {
+		this.walls = walls;
+	}
+	void setTree(BSPTreeStatistics tree) {
+		this.tree = tree;
+	}
+
+	/**
+	 * @return the skill level of the order
+	 */
+	public int getSkillLevel() {
+		return skillLevel;
+	}
+	/**
+	 * @return the builder algorithm of the order
+	 */
+	public Order.Builder getBuilder() {
+		return builder;
+	}
+	/**
+	 * @return true if the order asked for a perfect maze
+	 */
+	public boolean isPerfect() {
+		return perfect;
+	}
+	/**
+	 * @return the seed of the order
+	 */
+	public int getSeed() {
+		return seed;
+	}
+	/**
+	 * @return the width of the maze
+	 */
+	public int getWidth() {
+		return width;
+	}
+	/**
+	 * @return the height of the maze
+	 */
+	public int getHeight() {
+		return height;
+	}
+	/**
+	 * @return the number of rooms that were placed
+	 */
+	public int getRooms() {
+		return rooms;
+	}
+	/**
+	 * @return the number of walls before the BSP construction splits them
+	 */
+	public int getWalls() {
+		return walls;
+	}
+	/**
+	 * @return the shape of the BSP tree, null if the tree was not built
+	 */
+	public BSPTreeStatistics getTree() {
+		return tree;
+	}
+	/**
+	 * @return the phases in the order in which they ran
+	 */
+	public List<Phase> getPhases() {
+		return Collections.unmodifiableList(phases);
+	}
+	/**
+	 * @return the wall-clock time of all phases in nanoseconds
+	 */
+	public long getTotalWallTimeNanos() {
+		long result = 0;
+		for (Phase phase : phases)
+			result += phase.wallTimeNanos;
+		return result;
+	}
+
+	/**
+	 * Gives all figures as a JSON object.
+	 * @return the JSON text
+	 */
+	public String toJson() {
+		final StringBuilder sb = new StringBuilder(256 + 96 * phases.size());
+		sb.append("{\"skillLevel\":").append(skillLevel)
+		.append(",\"builder\":\"").append(builder).append('"')
+		.append(",\"perfect\":").append(perfect)
+		.append(",\"seed\":").append(seed)
+		.append(",\"width\":").append(width)
+		.append(",\"height\":").append(height)
+		.append(",\"rooms\":").append(rooms)
+		.append(",\"walls\":").append(walls);
+		if (null != tree) {
+			sb.append(",\"tree\":{\"branches\":").append(tree.getBranches())
+			.append(",\"leaves\":").append(tree.getLeaves())
+			.append(",\"walls\":").append(tree.getWalls())
+			.append(",\"maxDepth\":").append(tree.getMaxDepth())
+			.append(",\"averageLeafDepth\":").append(tree.getAverageLeafDepth())
+			.append(",\"maxLeafSize\":").append(tree.getMaxLeafSize())
+			.append('}');
+		}
+		sb.append(",\"phases\":[");
+		for (int i = 0; i < phases.size(); i++) {
+			final Phase phase = phases.get(i);
+			if (0 < i)
+				sb.append(',');
+			sb.append("{\"name\":\"").append(phase.name).append('"')
+			.append(",\"wallTimeNanos\":").append(phase.wallTimeNanos)
+			.append(",\"cpuTimeNanos\":").append(phase.cpuTimeNanos)
+			.append(",\"allocatedBytes\":").append(phase.allocatedBytes)
+			.append(",\"pooled\":").append(phase.pooled)
+			.append('}');
+		}
+		return sb.append("]}").toString();
+	}
+	@Override
+	public String toString() {
+		return toJson();
+	}
+
+	/**
+	 * Creates the meter that uses the management interface of the JVM.
+	 * @return the meter, one that provides no values if the JVM has no such interface
+	 */
+	private static ThreadMeter createDefaultMeter() {
+		try {
+			return new JvmThreadMeter();
+		} catch (LinkageError | RuntimeException e) {
+			// e.g. on Android, java.lang.management is not available
+			LOGGER.fine("No thread management available, CPU time and allocations are not measured");
+			return new ThreadMeter() {
+				@Override
+				public long getCpuTimeNanos() {
+					return -1;
+				}
+				@Override
+				public long getAllocatedBytes() {
+					return -1;
+				}
+			};
+		}
+	}
+
+	/**
+	 * The figures for a single phase of the generation.
+	 */
+	public static final class Phase {
+		private final String name;
+		private final long wallTimeNanos;
+		private final long cpuTimeNanos;
+		private final long allocatedBytes;
+		private final boolean pooled;
+
+		Phase(String name, long wallTimeNanos, long cpuTimeNanos, long allocatedBytes, boolean pooled) {
+			this.name = name;
+			this.wallTimeNanos = wallTimeNanos;
+			this.cpuTimeNanos = cpuTimeNanos;
+			this.allocatedBytes = allocatedBytes;
+			this.pooled = pooled;
+		}
+		/**
+		 * @return the name of the phase, e.g. pathways
+		 */
+		public String getName() {
+			return name;
+		}
+		/**
+		 * @return the wall-clock time in nanoseconds
+		 */
+		public long getWallTimeNanos() {
+			return wallTimeNanos;
+		}
+		/**
+		 * @return the CPU time of the builder thread and the pool threads in nanoseconds, -1 if not available
+		 */
+		public long getCpuTimeNanos() {
+			return cpuTimeNanos;
+		}
+		/**
+		 * @return the bytes allocated by the builder thread and the pool threads, -1 if not available
+		 */
+		public long getAllocatedBytes() {
+			return allocatedBytes;
+		}
+		/**
+		 * @return true if pool threads worked in this phase and their figures are included
+		 */
+		public boolean isPooled() {
+			return pooled;
+		}
+	}
+
+	/**
+	 * A meter that reads the thread management interface of the JVM.
+	 * Allocations are only available on JVMs that offer the
+	 * com.sun.management extension, e.g. HotSpot.
+	 */
+	private static final class JvmThreadMeter implements ThreadMeter {
+		private final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		private final boolean cpuTime = bean.isCurrentThreadCpuTimeSupported() && bean.isThreadCpuTimeEnabled();
+		private final boolean allocations = supportsAllocations(bean);
+
+		@Override
+		public long getCpuTimeNanos() {
+			return cpuTime ? bean.getCurrentThreadCpuTime() : -1;
+		}
+		@Override
+		public long getAllocatedBytes() {
+			return allocations ?
+					((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+		}
+		private static boolean supportsAllocations(ThreadMXBean bean) {
+			try {
+				return bean instanceof com.sun.management.ThreadMXBean
+						&& ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled();
+			} catch (LinkageError e) {
+				return false;
+			}
+		}
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.Arrays;
+
+/**
+ * Default CellStore that keeps one 32 bit integer per cell
+ * in a single flat array.
+ * 
+ * @see CellStore
+ */
+public final class IntCellStore extends CellStore {
+	private final int[] values; // cell values in row-major order
+
+	/**
+	 * Constructor for a store with all values being 0.
+	 * @param size the number of cells, {@code 0 < size}
+	 */
+	public IntCellStore(int size) {
+		values = new int[size];
+	}
+	/**
+	 * Constructor that takes over the given array.
+	 * @param values cell values in row-major order, shared not copied
+	 */
+	private IntCellStore(int[] values) {
+		this.values = values;
+	}
+	@Override
+	public int size() {
+		return values.length;
+	}
+	@Override
+	public int get(int index) {
+		return values[index];
+	}
+	@Override
+	public void set(int index, int value) {
+		values[index] = value;
+	}
+	@Override
+	public void setBits(int index, int mask) {
+		values[index] |= mask;
+	}
+	@Override
+	public void clearBits(int index, int mask) {
+		values[index] &= ~mask;
+	}
+	@Override
+	public boolean hasAnyBit(int index, int mask) {
+		return (values[index] & mask) != 0;
+	}
+	@Override
+	public void copyTo(int from, int[] dest, int destPos, int length) {
+		System.arraycopy(values, from, dest, destPos, length);
+	}
+	@Override
+	public void copyFrom(int[] src, int srcPos, int to, int length) {
+		System.arraycopy(src, srcPos, values, to, length);
+	}
+	@Override
+	public CellStore copy() {
+		return new IntCellStore(values.clone());
+	}
+	@Override
+	public boolean hasSameContent(CellStore other) {
+		if (other instanceof IntCellStore)
+			return Arrays.equals(values, ((IntCellStore)other).values);
+		return super.hasSameContent(other);
+	}
+}
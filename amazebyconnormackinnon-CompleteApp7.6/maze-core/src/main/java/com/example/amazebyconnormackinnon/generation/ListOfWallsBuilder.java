@@ -4,8 +4,6 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 
-import com.example.amazebyconnormackinnon.gui.Constants;
-
 /**
  * This class creates a list of walls for a floorplan.
  * The BSP tree operates on walls (polygons) while the floorplan
@@ -71,8 +69,8 @@ public class ListOfWallsBuilder {
 	                y = cur[1];
 	                // create wall with (x,starty) being the actual start position of the wall, 
                     // y-starty being the positive length
-                    sl.add(new Wall(x*Constants.MAP_UNIT, starty*Constants.MAP_UNIT,
-                            0, (y-starty)*Constants.MAP_UNIT, dists.getDistanceValue(x, starty), colchange));
+                    sl.add(new Wall(x*MazeConstants.MAP_UNIT, starty*MazeConstants.MAP_UNIT,
+                            0, (y-starty)*MazeConstants.MAP_UNIT, dists.getDistanceValue(x, starty), colchange));
 	            }
 	            
 	            it = floorplan.iterator(x, 0, CardinalDirection.East);
@@ -83,8 +81,8 @@ public class ListOfWallsBuilder {
                     // create wall with (x+1,y) being being one off in both directions from the last cell in this wall, starty-y being the negative length
                     // since we are looking at right wallboards, one off in the right direction (x+1) are then cells that have this wall on its left hand side
                     // for some reason the end position is used as a starting position and therefore the length & direction is inverse 
-                    sl.add(new Wall((x+1)*Constants.MAP_UNIT, y*Constants.MAP_UNIT,
-                            0, (starty-y)*Constants.MAP_UNIT, dists.getDistanceValue(x, starty), colchange));
+                    sl.add(new Wall((x+1)*MazeConstants.MAP_UNIT, y*MazeConstants.MAP_UNIT,
+                            0, (starty-y)*MazeConstants.MAP_UNIT, dists.getDistanceValue(x, starty), colchange));
                 }
 	        }
 	    }
@@ -107,8 +105,8 @@ public class ListOfWallsBuilder {
                 x = cur[1];
                 // create wall with (x,y) being the end positions, startx-x being the negative length
                 // note the (x,y) is not part of the wall
-                sl.add(new Wall(x*Constants.MAP_UNIT, y*Constants.MAP_UNIT,
-                        (startx-x)*Constants.MAP_UNIT, 0, dists.getDistanceValue(startx, y), colchange));
+                sl.add(new Wall(x*MazeConstants.MAP_UNIT, y*MazeConstants.MAP_UNIT,
+                        (startx-x)*MazeConstants.MAP_UNIT, 0, dists.getDistanceValue(startx, y), colchange));
             }
             // second round through rows, same for bottom wallboards
             it = floorplan.iterator(0,y, CardinalDirection.South);
@@ -118,8 +116,8 @@ public class ListOfWallsBuilder {
                 x = cur[1];
                 // create wall with (startx,y+1) being one below the start position, x-startx being the positive length
                 // so this may represent a wallboard at the bottom of the wall as the top wallboard one below
-                sl.add(new Wall(startx*Constants.MAP_UNIT, (y+1)*Constants.MAP_UNIT,
-                        (x-startx)*Constants.MAP_UNIT, 0, dists.getDistanceValue(startx, y), colchange));
+                sl.add(new Wall(startx*MazeConstants.MAP_UNIT, (y+1)*MazeConstants.MAP_UNIT,
+                        (x-startx)*MazeConstants.MAP_UNIT, 0, dists.getDistanceValue(startx, y), colchange));
             }
         }
     }
@@ -0,0 +1,245 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * This class encodes the cells of a floorplan and the distance matrix
+ * into a compact sequence of bytes and decodes them again.
+ * Values are predicted from a neighbor and only the difference is stored
+ * as a varint, 7 bits per byte with the high bit set on all but the last byte,
+ * such that small differences take a single byte.
+ *
+ * Cells are encoded row by row as in the floorplan, each value is xor-ed with
+ * the cell above since walls and bounds of neighboring rows mostly agree.
+ * Distances are encoded column by column as in Distance, each value as the zigzag
+ * encoded difference to the value above, which is 1 along a corridor.
+ * The first value of a column is predicted by the first value of the previous column.
+ *
+ * The optional deflate stage compresses the varints with a Deflater,
+ * the block then starts with the number of bytes of the varints.
+ * Rows of cells repeat as a whole, which the deflate stage finds better without
+ * the xor, so cells are not predicted if they are deflated.
+ */
+final class MatrixCodec {
+	private MatrixCodec() {
+	}
+
+	/**
+	 * Encodes the values of all cells of a floorplan.
+	 * @param cells the floorplan
+	 * @param width the width of the floorplan
+	 * @param height the height of the floorplan
+	 * @param deflate true if the varints are compressed with a Deflater
+	 * @return the encoded cells
+	 */
+	static byte[] encodeCells(Floorplan cells, int width, int height, boolean deflate) {
+		final Bytes out = new Bytes(width*height + 16);
+		int[] row = new int[width];
+		int[] above = new int[width]; // zeros above the first row
+		for (int y = 0; y != height; y++) {
+			cells.getRow(y, row);
+			for (int x = 0; x != width; x++)
+				out.putVarint(deflate ? row[x] : row[x] ^ above[x]);
+			final int[] tmp = above;
+			above = row;
+			row = tmp;
+		}
+		return deflate ? deflate(out) : out.toArray();
+	}
+	/**
+	 * Decodes cells encoded with encodeCells into the given floorplan.
+	 * @param data the encoded cells
+	 * @param cells the floorplan that receives the values
+	 * @param width the width of the floorplan
+	 * @param height the height of the floorplan
+	 * @param deflate true if the varints are compressed with a Deflater
+	 * @throws IOException if the data is inconsistent with the size or the storage of the floorplan
+	 */
+	static void decodeCells(byte[] data, Floorplan cells, int width, int height, boolean deflate) throws IOException {
+		final Varints in = deflate ? inflate(data, width*height) : new Varints(data, 0, data.length);
+		final int invalid = (Floorplan.Storage.Compact == cells.getStorage()) ? ~0xFFFF : 0; // bits the storage can not hold
+		int[] row = new int[width];
+		int[] above = new int[width];
+		for (int y = 0; y != height; y++) {
+			int bits = 0;
+			for (int x = 0; x != width; x++) {
+				row[x] = deflate ? in.next() : in.next() ^ above[x];
+				bits |= row[x];
+			}
+			if ((bits & invalid) != 0)
+				throw new IOException("MatrixCodec: value in row " + y + " does not fit into 16 bits");
+			cells.setRow(y, row);
+			final int[] tmp = above;
+			above = row;
+			row = tmp;
+		}
+		in.checkEnd();
+	}
+	/**
+	 * Encodes the distance matrix.
+	 * @param dists the distances, indexed by x then y as in Distance
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param deflate true if the varints are compressed with a Deflater
+	 * @return the encoded distances
+	 */
+	static byte[] encodeDistances(int[][] dists, int width, int height, boolean deflate) {
+		final Bytes out = new Bytes(width*height + 16);
+		int top = 0; // first value of the previous column
+		for (int x = 0; x != width; x++) {
+			final int[] column = dists[x];
+			int last = top;
+			for (int y = 0; y != height; y++) {
+				out.putVarint(zigzag(column[y] - last));
+				last = column[y];
+			}
+			top = column[0];
+		}
+		return deflate ? deflate(out) : out.toArray();
+	}
+	/**
+	 * Decodes distances encoded with encodeDistances into the given matrix.
+	 * @param data the encoded distances
+	 * @param dists the matrix that receives the values, indexed by x then y
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param deflate true if the varints are compressed with a Deflater
+	 * @throws IOException if the data is inconsistent with the size of the matrix
+	 */
+	static void decodeDistances(byte[] data, int[][] dists, int width, int height, boolean deflate) throws IOException {
+		final Varints in = deflate ? inflate(data, width*height) : new Varints(data, 0, data.length);
+		int top = 0;
+		for (int x = 0; x != width; x++) {
+			final int[] column = dists[x];
+			int last = top;
+			for (int y = 0; y != height; y++) {
+				final int v = in.next();
+				last += (v >>> 1) ^ -(v & 1);
+				column[y] = last;
+			}
+			top = column[0];
+		}
+		in.checkEnd();
+	}
+
+	/**
+	 * Maps small negative and positive values to small non-negative values,
+	 * 0, -1, 1, -2, 2 become 0, 1, 2, 3, 4.
+	 */
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+	/**
+	 * Compresses the given varints and puts their number of bytes in front.
+	 */
+	private static byte[] deflate(Bytes raw) {
+		final Deflater deflater = new Deflater();
+		try {
+			deflater.setInput(raw.buf, 0, raw.size);
+			deflater.finish();
+			final Bytes out = new Bytes(raw.size / 2 + 16);
+			out.putVarint(raw.size);
+			while (!deflater.finished()) {
+				out.ensure(4096);
+				out.size += deflater.deflate(out.buf, out.size, out.buf.length - out.size);
+			}
+			return out.toArray();
+		} finally {
+			deflater.end();
+		}
+	}
+	/**
+	 * Decompresses a block written by deflate.
+	 * @param data the block
+	 * @param count the number of values in the block, each takes 1 to 5 bytes
+	 * @return the varints of the block
+	 * @throws IOException if the block is inconsistent, incomplete or followed by more data
+	 */
+	private static Varints inflate(byte[] data, int count) throws IOException {
+		final Varints header = new Varints(data, 0, data.length);
+		final int size = header.next();
+		if (size < count || 5L*count < size)
+			throw new IOException("MatrixCodec: " + size + " bytes can not hold " + count + " values");
+		final byte[] raw = new byte[size];
+		final Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data, header.pos, data.length - header.pos);
+			int n = 0;
+			while (n < size) {
+				final int k = inflater.inflate(raw, n, size - n);
+				if (0 == k && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary()))
+					throw new IOException("MatrixCodec: compressed data ends after " + n + " of " + size + " bytes");
+				n += k;
+			}
+			// the stream has to end with its checksum right after the values
+			if (0 != inflater.inflate(new byte[1]) || !inflater.finished() || 0 != inflater.getRemaining())
+				throw new IOException("MatrixCodec: compressed data does not end after " + size + " bytes");
+		} catch (DataFormatException e) {
+			throw new IOException("MatrixCodec: compressed data is corrupt", e);
+		} finally {
+			inflater.end();
+		}
+		return new Varints(raw, 0, size);
+	}
+
+	/**
+	 * A growing array of bytes that varints are appended to.
+	 */
+	private static final class Bytes {
+		private byte[] buf;
+		private int size;
+
+		Bytes(int capacity) {
+			buf = new byte[capacity];
+		}
+		void ensure(int n) {
+			if (buf.length - size < n)
+				buf = Arrays.copyOf(buf, Math.max(2*buf.length, size + n));
+		}
+		void putVarint(int value) {
+			ensure(5);
+			while ((value & ~0x7F) != 0) {
+				buf[size++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buf[size++] = (byte) value;
+		}
+		byte[] toArray() {
+			return Arrays.copyOf(buf, size);
+		}
+	}
+	/**
+	 * Reads varints from a range of an array of bytes.
+	 */
+	private static final class Varints {
+		private final byte[] data;
+		private final int limit;
+		private int pos;
+
+		Varints(byte[] data, int from, int to) {
+			this.data = data;
+			this.pos = from;
+			this.limit = to;
+		}
+		int next() throws IOException {
+			int value = 0;
+			for (int shift = 0; shift < 35; shift += 7) {
+				if (pos == limit)
+					throw new IOException("MatrixCodec: data ends within a value");
+				final int b = data[pos++];
+				value |= (b & 0x7F) << shift;
+				if (0 <= b)
+					return value;
+			}
+			throw new IOException("MatrixCodec: value takes more than 5 bytes");
+		}
+		void checkEnd() throws IOException {
+			if (pos != limit)
+				throw new IOException("MatrixCodec: " + (limit - pos) + " bytes left after the last value");
+		}
+	}
+}
@@ -1,9 +1,10 @@
 package com.example.amazebyconnormackinnon.generation;
 
+import java.util.List;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import com.example.amazebyconnormackinnon.gui.Constants;
-
+import com.example.amazebyconnormackinnon.generation.GenerationProgress.Phase;
 
 /**
  * This class has the responsibility to create a maze of given dimensions (width, height) 
@@ -24,7 +25,6 @@ public class MazeBuilder implements Runnable {
 	// Given input information: 
 	protected int width, height ; 	// width and height of maze, 
 	private int rooms; 		// requested number of rooms in maze, a room is an area with no walls and larger than a single cell
-	private int expectedPartiters; 	// user given limit for partiters
 	
 	// Produced output information to create the new maze
 	// root, cells, dists, startx, starty
@@ -38,14 +38,19 @@ public class MazeBuilder implements Runnable {
 	// the distance to exit for a cell at position (i,j) in the floor plan.
 
 	// class internal local variables
-	protected SingleRandom random ; // random number stream, used to make randomized decisions, e.g for direction to go
+	protected RandomStream random ; // random number stream of this order, used to make randomized decisions, e.g for direction to go
 	Order order; // describes what is wanted, e.g. a perfect maze or not
+	private TelemetryListener telemetryListener ; // receives the telemetry before delivery, null if not used
+	private GenerationTelemetry telemetry ; // figures for the current order, null if there is no listener
+	private GenerationProgress progress ; // progress of the current order, published to the order
 	
 	// constants
-	static final long SLEEP_INTERVAL = 100 ; //constant used for brief breaks to recognize interrupted signal, unit is millisecond
+	static final int CHECK_INTERVAL = 4096 ; // number of loop iterations between two checks for an interrupt, a power of 2
 	static final int MAX_TRIES = 250 ; // room generation: max number of tries to find a random location for a room
 	static final int MIN_ROOM_DIMENSION = 3; // room generation: min dimension
 	static final int MAX_ROOM_DIMENSION = 8; // room generation: max dimension
+	static final CardinalDirection[] DIRECTIONS = CardinalDirection.values(); // indexed by ordinal, values() creates a new array on each call
+	static final int COMPACT_FLOORPLAN_SIZE = 40000; // floorplans with at least this many cells use the compact memory layout
 
 	/**
 	 * Constructor for a randomized maze generation
@@ -59,20 +64,30 @@ public class MazeBuilder implements Runnable {
 	 */
 	public void buildOrder(Order order) {
 		this.order = order;
-		// configure and obtain the random number generator
-		SingleRandom.setSeed(order.getSeed());
-		random = SingleRandom.getRandom();
+		// each order has a random number stream of its own, builders running at the same time do not interfere
+		random = new RandomStream(order.getSeed());
 		// derive parameters 
 		int skill = order.getSkillLevel() ;
-		width = Constants.SKILL_X[skill];
-		height = Constants.SKILL_Y[skill];
+		width = MazeConstants.SKILL_X[skill];
+		height = MazeConstants.SKILL_Y[skill];
 		// only algorithm without rooms guarantees a perfect maze
 		// rooms can result in loops, so for a perfect maze, set room number to 0
-		rooms = order.isPerfect() ? 0 : Constants.SKILL_ROOMS[skill];
-		expectedPartiters = Constants.SKILL_PARTCT[skill];
+		rooms = order.isPerfect() ? 0 : MazeConstants.SKILL_ROOMS[skill];
 		// instantiate data structures
-		floorplan = new Floorplan(width,height) ;
+		floorplan = new Floorplan(width,height,
+				(width*height >= COMPACT_FLOORPLAN_SIZE) ? Floorplan.Storage.Compact : Floorplan.Storage.Int) ;
 		dists = new Distance(width,height) ;
+		telemetry = (null != telemetryListener) ? new GenerationTelemetry(order, width, height) : null ;
+		progress = new GenerationProgress(order, rooms > 0) ;
+	}
+	/**
+	 * Sets the listener that receives the telemetry for the order
+	 * right before the maze is delivered.
+	 * Needs to be called before buildOrder.
+	 * @param listener the listener, null to not collect telemetry
+	 */
+	void setTelemetryListener(TelemetryListener listener) {
+		telemetryListener = listener ;
 	}
 	/**
 	 * Main method to run construction of a new maze in a thread of its own.
@@ -81,29 +96,53 @@ public class MazeBuilder implements Runnable {
 	public void run() {
 		// try-catch block to recognize if thread is interrupted
 		try {
+			checkInterrupted() ; // the order may have been cancelled before the thread got to run
 			// create an initial invalid maze where all wallboards and borders are up
+			beginPhase(Phase.Initialize, 0);
 			floorplan.initialize();
+			endPhase(Phase.Initialize);
 			// place rooms in maze as needed
-			if (rooms > 0)
-				generateRooms();
-			
-			Thread.sleep(SLEEP_INTERVAL) ; // test if thread has been interrupted, i.e. notified to stop
+			if (rooms > 0) {
+				beginPhase(Phase.Rooms, 0);
+				final int placed = generateRooms();
+				endPhase(Phase.Rooms);
+				if (null != telemetry)
+					telemetry.setRooms(placed);
+			}
+			checkInterrupted() ;
 
 			// put pathways into the maze, determine its starting and end position and calculate distances
 			generate();
 
-			Thread.sleep(SLEEP_INTERVAL) ; // test if thread has been interrupted, i.e. notified to stop
-
 			final int colchange = random.nextIntWithinInterval(0, 255); // used in the constructor for Segments  class Seg
-			final BSPBuilder b = new BSPBuilder(order, dists, floorplan, width, height, colchange, expectedPartiters) ;
-			BSPNode root = b.generateBSPNodes(); // takes a long time, updates progressbar, 
-			// it also internally checks for cancel requests
+			final BSPBuilder b = new BSPBuilder(dists, floorplan, width, height, colchange) ;
+			final long bspStart = System.nanoTime();
+			beginPhase(Phase.Walls, 0);
+			final List<Wall> walls = b.generateWalls();
+			endPhase(Phase.Walls);
+			checkInterrupted() ;
+			// every wall ends up in a leaf, some are split on the way
+			beginPhase(Phase.BSP, Math.round(walls.size() * GenerationProgress.BSP_SPLIT_FACTOR));
+			b.setProgress(progress);
+			b.setTelemetry(telemetry);
+			BSPNode root = b.generateBSPNodes(walls); // takes a long time, updates progressbar, 
+			// it also checks for cancel requests at every node of the tree
 			// and throws an interrupted exception if that happens
-
-			Thread.sleep(SLEEP_INTERVAL) ; // test if thread has been interrupted, i.e. notified to stop
+			endPhase(Phase.BSP);
+			if (LOGGER.isLoggable(Level.FINE)) {
+				LOGGER.fine("BSP tree with " + b.getSplitter() + " splitter built in " 
+						+ (System.nanoTime() - bspStart) / 1000000 + " ms: " + new BSPTreeStatistics(root));
+			}
+			if (null != telemetry) {
+				telemetry.setWalls(walls.size());
+				telemetry.setTree(new BSPTreeStatistics(root));
+			}
+			checkInterrupted() ; // a cancelled order does not get a maze
 
 			// communicate results back to Controller
-			order.updateProgress(100); // Order interface promises to communicate 100% upon delivery
+			progress.finish(); // Order interface promises to communicate 100% upon delivery
+			if (null != telemetry)
+				telemetryListener.onTelemetry(telemetry);
 			order.deliver(new MazeContainer(width, height, floorplan, dists, root, startx, starty));
             // reset order and other fields for safe repeated operation and garbage collection
 			reset() ;
@@ -112,13 +151,44 @@ public class MazeBuilder implements Runnable {
 			// if user cancels a lengthy maze generation, we need to stop and 
 			// clean up internal data structures
 			// exception mechanism is basically used to exit method in a controlled way
-			// 
+			// from any of the checkpoints inside the phases
 			LOGGER.fine("Catching signal to stop") ;
 			// reset order and other fields for safe repeated operation and garbage collection
 			reset();
 		}
 	}
 	
+	/**
+	 * Checks if the thread has been interrupted, i.e. notified to stop.
+	 * Reading the interrupt flag is cheap, so the phases call this
+	 * at checkpoints inside their loops, see CHECK_INTERVAL.
+	 * The flag is not cleared, so later checkpoints see it as well.
+	 * @throws InterruptedException if the current thread is interrupted
+	 */
+	static void checkInterrupted() throws InterruptedException {
+		if (Thread.currentThread().isInterrupted())
+			throw new InterruptedException();
+	}
+	/**
+	 * Starts a phase for the progress and, if telemetry is collected, its measurement.
+	 * @param phase the phase that starts
+	 * @param work the units of work the phase reports, 0 if it reports none
+	 */
+	private void beginPhase(Phase phase, long work) {
+		if (null != telemetry)
+			telemetry.beginPhase();
+		progress.beginPhase(phase, work);
+	}
+	/**
+	 * Ends a phase for the progress and, if telemetry is collected, its measurement.
+	 * @param phase the phase that ends
+	 */
+	private void endPhase(Phase phase) {
+		if (null != telemetry)
+			telemetry.endPhase(phase.getLabel());
+		progress.endPhase(phase);
+	}
+
 	/**
 	 * Reset all fields to initial values
 	 */
@@ -126,13 +196,14 @@ public class MazeBuilder implements Runnable {
 		width = 0 ;
 		height = 0 ;
 		rooms = 0 ;
-		expectedPartiters = 0 ;
 		startx = 0 ;
 		starty = 0 ;
 		floorplan = null ;
 		dists = null ;
 		// leave random number generator as is
 		order = null ;
+		telemetry = null ;
+		progress = null ;
 	}
 	
 	
@@ -189,7 +260,7 @@ public class MazeBuilder implements Runnable {
 			return false ;
 		// since the area is available, mark it for this room and remove all wallboards
 		// from this on it is clear that we can place the room on the maze
-		floorplan.markAreaAsRoom(rw, rh, rx, ry, rxl, ryl); 
+		floorplan.markAreaAsRoom(rw, rh, rx, ry, rxl, ryl, random); 
 		return true;
 	}
 
@@ -198,14 +269,19 @@ public class MazeBuilder implements Runnable {
 	/**
 	 * This method generates a maze.
 	 * It computes distances, determines a start and exit position that are as far apart as possible. 
+	 * @throws InterruptedException if the thread is interrupted during the generation
 	 */
-	protected void generate() {
+	protected void generate() throws InterruptedException {
 		// generate paths in cells such that there is one strongly connected component
 		// i.e. between any two cells in the maze there is a path to get from one to the other
 		// the search algorithms starts at some random point
+		beginPhase(Phase.Pathways, 0);
 		generatePathways(); 
+		endPhase(Phase.Pathways);
 
+		beginPhase(Phase.Distances, 0);
 		final int[] remote = dists.computeDistances(floorplan) ;
+		endPhase(Phase.Distances);
 
 		// identify cell with the greatest distance
 		final int[] pos = dists.getStartPosition();
@@ -216,54 +292,63 @@ public class MazeBuilder implements Runnable {
 		floorplan.setExitPosition(remote[0], remote[1]);
 	}
 	/**
-	 * This method generates pathways into the maze.
-	 * Comments have been removed to make students 
-	 * recognize the difference between readable and unreadable code
-	 * and what kind of comments are needed to understand code.
-	 * A previous version is kept below and commented out which is 
-	 * even worse than this one.
+	 * This method generates pathways into the maze with a randomized depth-first search.
+	 * The search walks from cell to cell and tears down wallboards to cells that have
+	 * not been visited yet. At a dead end it backs up along the path it came from.
+	 * 
+	 * The loop does not allocate any objects. Directions are handled as ordinals
+	 * of CardinalDirection, {@code (dir+1) & 3} is a clockwise rotation.
+	 * The direction by which a cell was entered is kept as {@code ordinal+1} in a
+	 * byte array with one entry per cell, 0 means the cell has not been entered (start position).
+	 * Random numbers are drawn in the same sequence as by the previous version
+	 * that worked with CardinalDirection objects, so a given seed results in the same maze.
+	 * The search checks for an interrupt every CHECK_INTERVAL cells it enters.
+	 * @throws InterruptedException if the thread is interrupted during the search
 	 */
-	protected void generatePathways() {
-		int x = random.nextIntWithinInterval(0, width-1);
+	protected void generatePathways() throws InterruptedException {
+		final RandomStream rnd = random; // local reference for the loop
+		int x = rnd.nextIntWithinInterval(0, width-1);
 		int y = 0; 
 		final int firstx = x; 
 		final int firsty = y;
 		
-		CardinalDirection[][] origcds = new CardinalDirection[width][height]; 
-		CardinalDirection cd = CardinalDirection.East;
-		CardinalDirection origcd = cd;
+		final byte[] origdirs = new byte[width*height]; // direction that lead to (x,y) at index y*width+x, as ordinal+1
+		int dir = CardinalDirection.East.ordinal();
+		int origdir = dir;
 		
 		floorplan.setCellAsVisited(x, y); 
-		Wallboard wallboard = new Wallboard(x, y, cd);
+		final Wallboard wallboard = new Wallboard(x, y, DIRECTIONS[dir]);
+		int entered = 0; // number of cells entered, used for checkpoints
 		while (true) { 
-			wallboard.setLocationDirection(x, y, cd);
+			wallboard.setLocationDirection(x, y, DIRECTIONS[dir]);
 			if (!floorplan.canTearDown(wallboard)) {
-				cd = cd.rotateClockwise();
-				if (origcd == cd) {				
+				dir = (dir+1) & 3; // rotate clockwise
+				if (origdir == dir) { // tried all 4 directions, back up
 					if (x == firstx && y == firsty)
-						break; 			
-					int[] dxy = origcds[x][y].getDxDyDirection();
-					x -= dxy[0];
-					y -= dxy[1];
-					if (null == origcds[x][y]) {
+						break; 
+					final CardinalDirection back = DIRECTIONS[origdirs[y*width+x]-1];
+					x -= back.getDx();
+					y -= back.getDy();
+					if (0 == origdirs[y*width+x]) {
 						// Happens at starting position
 						assert (x == firstx && y == firsty) : "catching null elsewhere than starting position" ;
-						cd = cd.randomDirection() ;
+						dir = rnd.nextIntWithinInterval(0, 3);
 					}
 					else
-						cd = origcds[x][y] ;
-					cd = cd.rotateClockwise();
-					origcd = cd;
+						dir = origdirs[y*width+x]-1;
+					dir = (dir+1) & 3;
+					origdir = dir;
 				}
 			} else {
 				floorplan.deleteWallboard(wallboard);
-				int[] dxy = cd.getDxDyDirection();
-				x += dxy[0];
-				y += dxy[1];
+				x += DIRECTIONS[dir].getDx();
+				y += DIRECTIONS[dir].getDy();
 				floorplan.setCellAsVisited(x, y);
-				origcds[x][y] = cd;
-				cd = cd.randomDirection();
-				origcd = cd;
+				origdirs[y*width+x] = (byte) (dir+1);
+				if (0 == (++entered & (CHECK_INTERVAL-1)))
+					checkInterrupted();
+				dir = rnd.nextIntWithinInterval(0, 3); // same as CardinalDirection.randomDirection(rnd)
+				origdir = dir;
 			}
 		}
 	}
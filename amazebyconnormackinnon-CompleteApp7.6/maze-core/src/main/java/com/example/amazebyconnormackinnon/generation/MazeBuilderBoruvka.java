@@ -0,0 +1,177 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height) 
+ * together with a solution based on a distance matrix.
+ * 
+ * The maze is built with Boruvka's algorithm for a minimum spanning tree.
+ * Each internal wallboard gets a random weight. In each round, every connected
+ * component of cells picks the cheapest wallboard that separates it from
+ * another component and all picked wallboards are torn down.
+ * The number of components at least halves with each round, so there are
+ * at most log(width*height) rounds.
+ * 
+ * Components are tracked with a disjoint-set forest, weights are kept in 
+ * an int array with two entries per cell for its east and south wallboard.
+ * Equal weights are broken by the index of the wallboard, so all weights
+ * are distinct and the algorithm can not create a loop.
+ * Wallboards that carry the border flag are left in tact, cells inside
+ * a room start out as a single component.
+ *   
+ * @author Connor MacKinnon
+ */
+public class MazeBuilderBoruvka extends MazeBuilder implements Runnable  {
+	private static final Logger LOGGER = Logger.getLogger(MazeBuilderBoruvka.class.getName());
+	
+	private static final int EAST = 0; // offset of the east wallboard of a cell in the weights array
+	private static final int SOUTH = 1; // offset of the south wallboard of a cell in the weights array
+	
+	private int[] weights; // weights[2*(y*width+x)+EAST|SOUTH] is the weight of the east|south wallboard of (x,y)
+	private DisjointSets components; // connected components of cells, cell (x,y) is element y*width+x
+	
+	/**
+	 * Constructor for MazeBuilderBoruvka
+	 */
+	public MazeBuilderBoruvka() {
+		super();
+		LOGGER.config("Using Boruvka's algorithm to generate maze.");
+	}
+	
+	/**
+	 * This method generates the pathways with Boruvka's algorithm.
+	 * First all cells that are already connected, i.e. inside a room, are merged
+	 * into components. Then each round tears down the cheapest wallboard for each 
+	 * component till a single component remains or no wallboard can be torn down.
+	 * It checks for an interrupt before each round, a round takes time linear in the number of cells.
+	 * @throws InterruptedException if the thread is interrupted during the generation
+	 */
+	@Override
+	protected void generatePathways() throws InterruptedException {
+		final int size = width*height;
+		components = new DisjointSets(size);
+		weights = new int[2*size];
+		final Wallboard wallboard = new Wallboard(0, 0, CardinalDirection.East);
+		// candidates holds all wallboards that may be torn down, encoded as 2*cell+EAST|SOUTH
+		final int[] candidates = new int[2*size];
+		int numCandidates = initCandidates(candidates, wallboard);
+		
+		final int[] cheapest = new int[size]; // cheapest candidate per component representative, -1 for none
+		Arrays.fill(cheapest, -1);
+		while (components.getCount() > 1 && numCandidates > 0) {
+			checkInterrupted();
+			// Step 1: find the cheapest wallboard for each component
+			// and drop candidates that are inside a single component by now
+			int kept = 0;
+			for (int i = 0; i < numCandidates; i++) {
+				final int w = candidates[i];
+				final int a = components.find(w >> 1);
+				final int b = components.find(getNeighbor(w));
+				if (a == b)
+					continue;
+				candidates[kept++] = w;
+				if (isCheaper(w, cheapest[a]))
+					cheapest[a] = w;
+				if (isCheaper(w, cheapest[b]))
+					cheapest[b] = w;
+			}
+			numCandidates = kept;
+			// Step 2: tear down the selected wallboards
+			// a wallboard can be selected by both of its components, 
+			// the union operation recognizes the second attempt
+			boolean merged = false;
+			for (int cell = 0; cell < size; cell++) {
+				final int w = cheapest[cell];
+				if (-1 == w)
+					continue;
+				cheapest[cell] = -1;
+				if (components.union(w >> 1, getNeighbor(w))) {
+					tearDown(wallboard, w);
+					merged = true;
+				}
+			}
+			if (!merged) // no progress possible, e.g. for a room without doors
+				break;
+		}
+		assert components.getCount() == 1 : "Boruvka: maze is not connected, components: " + components.getCount();
+		weights = null;
+		components = null;
+	}
+	
+	/**
+	 * Assigns random weights to all internal wallboards and collects the ones
+	 * that can be torn down as candidates. Cells that are not separated
+	 * by a wallboard, i.e. cells inside a room, are merged right away.
+	 * @param candidates array to store candidates in, {@code 2*width*height <= candidates.length}
+	 * @param wallboard reused object to avoid allocations
+	 * @return the number of candidates
+	 */
+	private int initCandidates(int[] candidates, Wallboard wallboard) {
+		int n = 0;
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				final int cell = y*width+x;
+				if (x < width-1)
+					n = addCandidate(candidates, n, wallboard, x, y, cell, EAST, CardinalDirection.East);
+				if (y < height-1)
+					n = addCandidate(candidates, n, wallboard, x, y, cell, SOUTH, CardinalDirection.South);
+			}
+		}
+		return n;
+	}
+	/**
+	 * Classifies the wallboard of cell (x,y) in the given direction.
+	 * Missing wallboards merge the two cells, borders are skipped, 
+	 * all other wallboards get a weight and become candidates. 
+	 * @return the updated number of candidates
+	 */
+	private int addCandidate(int[] candidates, int n, Wallboard wallboard, int x, int y, int cell, int side, CardinalDirection cd) {
+		final int w = 2*cell+side;
+		if (floorplan.hasNoWall(x, y, cd)) {
+			components.union(cell, getNeighbor(w));
+			return n;
+		}
+		wallboard.setLocationDirection(x, y, cd);
+		if (floorplan.isPartOfBorder(wallboard))
+			return n;
+		weights[w] = random.nextInt();
+		candidates[n] = w;
+		return n+1;
+	}
+	/**
+	 * Compares two wallboards by weight and breaks ties with the index. 
+	 * @param w wallboard index
+	 * @param other wallboard index or -1 for none
+	 * @return true if w is cheaper than other or other is -1, false otherwise
+	 */
+	private boolean isCheaper(int w, int other) {
+		if (-1 == other)
+			return true;
+		if (weights[w] != weights[other])
+			return weights[w] < weights[other];
+		return w < other;
+	}
+	/**
+	 * Gives the cell on the other side of the wallboard.
+	 * @param w wallboard index, 2*cell+EAST|SOUTH
+	 * @return the index of the adjacent cell
+	 */
+	private int getNeighbor(int w) {
+		final int cell = w >> 1;
+		return ((w & 1) == EAST) ? cell+1 : cell+width;
+	}
+	/**
+	 * Removes the wallboard with the given index from the floorplan.
+	 * @param wallboard reused object to avoid allocations
+	 * @param w wallboard index, 2*cell+EAST|SOUTH
+	 */
+	private void tearDown(Wallboard wallboard, int w) {
+		final int cell = w >> 1;
+		wallboard.setLocationDirection(cell % width, cell / width, 
+				((w & 1) == EAST) ? CardinalDirection.East : CardinalDirection.South);
+		floorplan.deleteWallboard(wallboard);
+	}
+}
@@ -0,0 +1,317 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height)
+ * together with a solution based on a distance matrix.
+ *
+ * The maze is built with Eller's algorithm. It works through the maze one row
+ * at a time from top to bottom and only remembers for each cell of the current row
+ * to which set of connected cells it belongs.
+ * For each row:
+ * 1. adjacent cells of different sets are randomly joined by tearing down the wallboard between them,
+ * 2. each set picks at least one cell to connect downwards to the next row,
+ * 3. cells of the next row that are not connected from above start a set of their own.
+ * The last row joins all remaining sets. Finished rows are written into the floorplan
+ * right away and never looked at again, so the working memory is a few arrays of
+ * size width, independent of the height of the maze.
+ *
+ * Rooms need extra care as a set in a row is lost if it can not continue
+ * downwards. Wallboards with the border flag stay in place, so a set inside
+ * a room can only leave the room through one of its doors. When a set
+ * would enter a room that has no door below the current row, that connection
+ * does not count as a way to continue and the set is joined with a neighbor instead.
+ * If this is impossible, as for a room with doors on top only, the set is
+ * joined upwards with a set of the previous row.
+ *
+ * @see MazeBuilder
+ */
+public class MazeBuilderEller extends MazeBuilder implements Runnable {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MazeBuilderEller.class.getName());
+
+	// working memory, all arrays have length width
+	private int[] label; // label[x] is the set of cell (x,y) for the current row y, labels are in [0,width)
+	private int[] previous; // labels of the previous row, kept consistent with merges in the current row
+	private boolean[] candidate; // candidate[x] is true if (x,y) can connect to (x,y+1)
+	private boolean[] live; // live[x] is true if connecting (x,y) to (x,y+1) lets the set continue further down
+	private boolean[] down; // down[x] is true if (x,y) is connected to (x,y+1)
+	private int[] segment; // segment[x] is the leftmost cell of row y+1 that is connected to (x,y+1) without a wallboard
+	private int[] mark; // mark[l] is the last segment that set l connected to
+	private boolean[] liveSet; // liveSet[l] is true if set l has a candidate that is live
+	private int[] liveCount; // liveCount[l] is the number of live candidates of set l
+	private final Wallboard wallboard = new Wallboard(0, 0, CardinalDirection.East); // reused to avoid allocations
+
+	public MazeBuilderEller() {
+		super();
+		LOGGER.config("Using Eller's algorithm to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze row by row with Eller's algorithm.
+	 * It checks for an interrupt before each row.
+	 * @throws InterruptedException if the thread is interrupted during the generation
+	 */
+	@Override
+	protected void generatePathways() throws InterruptedException {
+		label = new int[width];
+		previous = new int[width];
+		candidate = new boolean[width];
+		live = new boolean[width];
+		down = new boolean[width];
+		segment = new int[width];
+		mark = new int[width];
+		liveSet = new boolean[width];
+		liveCount = new int[width];
+		// first row: each cell is a set of its own
+		for (int x = 0; x < width; x++) {
+			label[x] = x;
+			previous[x] = -1;
+		}
+		for (int y = 0; y < height-1; y++) {
+			checkInterrupted();
+			joinHorizontally(y, false);
+			classifyDownwardConnections(y);
+			ensureSetsContinue(y);
+			connectDownwards(y);
+			advanceToNextRow();
+		}
+		// last row: join all remaining sets
+		joinHorizontally(height-1, true);
+		assert isSingleSet() : "Eller: last row holds more than one set";
+		label = previous = null;
+		candidate = live = down = liveSet = null;
+		liveCount = segment = mark = null;
+	}
+	/**
+	 * Joins adjacent cells of row y that belong to different sets.
+	 * Cells that are not separated by a wallboard, i.e. inside a room, are always joined.
+	 * Other cells are joined at random by tearing down the wallboard between them
+	 * unless the wallboard is a border.
+	 * @param y the current row
+	 * @param all if true, all cells are joined that can be joined, used for the last row
+	 */
+	private void joinHorizontally(int y, boolean all) {
+		// cells inside a room go first, otherwise a set could enter the room twice
+		for (int x = 0; x < width-1; x++) {
+			if (label[x] != label[x+1] && floorplan.hasNoWall(x, y, CardinalDirection.East))
+				merge(label[x], label[x+1]);
+		}
+		for (int x = 0; x < width-1; x++) {
+			if (label[x] == label[x+1])
+				continue;
+			if (!isBorder(x, y, CardinalDirection.East) && (all || 0 == random.nextIntWithinInterval(0, 1))) {
+				tearDown(x, y, CardinalDirection.East);
+				merge(label[x], label[x+1]);
+			}
+		}
+	}
+	/**
+	 * Determines which cells of row y can connect to the next row
+	 * and which of those connections let a set continue.
+	 * Cells that are not separated from the next row by a wallboard
+	 * are connected right away.
+	 * @param y the current row, {@code y < height-1}
+	 */
+	private void classifyDownwardConnections(int y) {
+		for (int x = 0; x < width; x++) {
+			down[x] = floorplan.hasNoWall(x, y, CardinalDirection.South);
+			candidate[x] = down[x] || !isBorder(x, y, CardinalDirection.South);
+			live[x] = candidate[x] && canContinueFrom(x, y+1);
+			segment[x] = (x > 0 && floorplan.hasNoWall(x-1, y+1, CardinalDirection.East)) ? segment[x-1] : x;
+		}
+	}
+	/**
+	 * Makes sure that every set of row y has a live candidate to continue downwards.
+	 * A set without one is joined with an adjacent set in the same row,
+	 * or, if that is not possible, with a set of the previous row.
+	 * @param y the current row, {@code y < height-1}
+	 */
+	private void ensureSetsContinue(int y) {
+		boolean changed = true;
+		while (changed) {
+			changed = false;
+			Arrays.fill(liveSet, false);
+			for (int x = 0; x < width; x++) {
+				if (live[x])
+					liveSet[label[x]] = true;
+			}
+			// try to join sets in this row
+			for (int x = 0; x < width-1; x++) {
+				final int a = label[x];
+				final int b = label[x+1];
+				if (a != b && (!liveSet[a] || !liveSet[b]) && !isBorder(x, y, CardinalDirection.East)) {
+					tearDown(x, y, CardinalDirection.East);
+					merge(a, b);
+					liveSet[a] |= liveSet[b];
+					changed = true;
+				}
+			}
+			if (changed || 0 == y)
+				continue;
+			// last resort: join a set with the previous row
+			for (int x = 0; x < width; x++) {
+				final int a = label[x];
+				final int b = previous[x];
+				if (!liveSet[a] && a != b && !isBorder(x, y, CardinalDirection.North)) {
+					tearDown(x, y, CardinalDirection.North);
+					merge(b, a);
+					changed = true;
+					break;
+				}
+			}
+		}
+	}
+	/**
+	 * Connects cells of row y with the next row. Each candidate is picked at random
+	 * and each set gets at least one live connection.
+	 * @param y the current row, {@code y < height-1}
+	 */
+	private void connectDownwards(int y) {
+		Arrays.fill(liveSet, false); // now: set has a live connection
+		Arrays.fill(liveCount, 0);
+		for (int x = 0; x < width; x++) {
+			if (candidate[x] && !down[x])
+				down[x] = (0 == random.nextIntWithinInterval(0, 1));
+			if (live[x]) {
+				liveCount[label[x]]++;
+				if (down[x])
+					liveSet[label[x]] = true;
+			}
+		}
+		// sets that have no live connection yet pick one of their live candidates
+		for (int x = 0; x < width; x++) {
+			final int l = label[x];
+			if (liveSet[l] || !live[x])
+				continue;
+			if (0 == random.nextIntWithinInterval(0, liveCount[l]-1)) {
+				down[x] = true;
+				liveSet[l] = true;
+			}
+			else {
+				liveCount[l]--;
+			}
+		}
+		removeDuplicateConnections(y);
+		for (int x = 0; x < width; x++) {
+			if (down[x] && floorplan.hasWall(x, y, CardinalDirection.South))
+				tearDown(x, y, CardinalDirection.South);
+		}
+	}
+	/**
+	 * Drops connections that would create a loop. Cells of the next row inside a room
+	 * are connected without wallboards, so a set must connect to each room at most once.
+	 * Connections without a wallboard are kept, they are part of the room.
+	 * All connections of a set into the same room are equally live, so the set
+	 * still continues.
+	 * @param y the current row, {@code y < height-1}
+	 */
+	private void removeDuplicateConnections(int y) {
+		Arrays.fill(mark, -1);
+		for (int x = 0; x < width; x++) {
+			if (down[x] && floorplan.hasNoWall(x, y, CardinalDirection.South))
+				mark[label[x]] = segment[x];
+		}
+		for (int x = 0; x < width; x++) {
+			if (!down[x] || floorplan.hasNoWall(x, y, CardinalDirection.South))
+				continue;
+			if (mark[label[x]] == segment[x])
+				down[x] = false;
+			else
+				mark[label[x]] = segment[x];
+		}
+	}
+	/**
+	 * Moves on to the next row. Cells connected from above inherit the set of
+	 * the cell above, all others start a new set.
+	 */
+	private void advanceToNextRow() {
+		System.arraycopy(label, 0, previous, 0, width);
+		// liveSet is reused to mark labels that continue into the next row
+		Arrays.fill(liveSet, false);
+		for (int x = 0; x < width; x++) {
+			if (down[x])
+				liveSet[label[x]] = true;
+		}
+		int free = 0;
+		for (int x = 0; x < width; x++) {
+			if (down[x])
+				continue;
+			while (liveSet[free])
+				free++;
+			label[x] = free;
+			liveSet[free] = true;
+		}
+	}
+	/**
+	 * Tells if a set that reaches cell (x,y) from above can continue further down.
+	 * This is the case for any cell outside of a room. For a cell inside a room,
+	 * the room must have a door at row y or below.
+	 * @param x coordinate of cell, {@code 0 <= x < width}
+	 * @param y coordinate of cell, {@code 0 < y < height}
+	 * @return true if a set can continue from (x,y), false otherwise
+	 */
+	private boolean canContinueFrom(int x, int y) {
+		if (y == height-1 || !floorplan.isInRoom(x, y))
+			return true;
+		// find left and right end of the room in row y
+		int left = x;
+		while (floorplan.hasNoWall(left, y, CardinalDirection.West))
+			left--;
+		int right = x;
+		while (floorplan.hasNoWall(right, y, CardinalDirection.East))
+			right++;
+		// look for a door on the sides of the room from row y on
+		int r = y;
+		while (true) {
+			if (!isBorder(left, r, CardinalDirection.West) || !isBorder(right, r, CardinalDirection.East))
+				return true;
+			if (floorplan.hasWall(left, r, CardinalDirection.South))
+				break;
+			r++;
+		}
+		// r is the bottom row of the room, look for a door at the bottom
+		for (int i = left; i <= right; i++) {
+			if (!isBorder(i, r, CardinalDirection.South))
+				return true;
+		}
+		return false;
+	}
+	/**
+	 * Joins set b into set a by relabeling all cells of b in the current and previous row.
+	 * @param a label of set that remains
+	 * @param b label of set that is merged into a
+	 */
+	private void merge(int a, int b) {
+		for (int x = 0; x < width; x++) {
+			if (label[x] == b)
+				label[x] = a;
+			if (previous[x] == b)
+				previous[x] = a;
+		}
+	}
+	/**
+	 * Tells if all cells of the current row belong to the same set.
+	 * @return true if there is a single set, false otherwise
+	 */
+	private boolean isSingleSet() {
+		for (int x = 1; x < width; x++) {
+			if (label[x] != label[0])
+				return false;
+		}
+		return true;
+	}
+	private boolean isBorder(int x, int y, CardinalDirection cd) {
+		wallboard.setLocationDirection(x, y, cd);
+		return floorplan.isPartOfBorder(wallboard);
+	}
+	private void tearDown(int x, int y, CardinalDirection cd) {
+		wallboard.setLocationDirection(x, y, cd);
+		floorplan.deleteWallboard(wallboard);
+	}
+}
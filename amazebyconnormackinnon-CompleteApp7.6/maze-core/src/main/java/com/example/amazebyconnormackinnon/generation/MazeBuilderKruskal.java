@@ -0,0 +1,106 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.logging.Logger;
+
+
+/**
+ * This class has the responsibility to create a maze of given dimensions (width, height) 
+ * together with a solution based on a distance matrix.
+ * 
+ * The maze is built with a randomized version of Kruskal's algorithm.
+ * All internal wallboards are put into a list in random order, which
+ * is the same as giving them random weights and sorting them.
+ * The algorithm goes through the list once and tears down a wallboard 
+ * if and only if the cells on its two sides are not connected yet.
+ * Connectivity is tracked with a disjoint-set forest such that the
+ * whole procedure runs in nearly linear time.
+ * 
+ * Algorithm leaves wallboards in tact that carry the border flag
+ * as MazeBuilderPrim does.
+ * Cells inside a room are connected already and start out as a single set,
+ * so the algorithm will open exactly one of the doors of a room.
+ *   
+ * @see DisjointSets
+ */
+public class MazeBuilderKruskal extends MazeBuilder implements Runnable {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MazeBuilderKruskal.class.getName());
+	
+	private static final int EAST = 0; // encoding of the east wallboard of a cell: 2*cell+EAST
+	private static final int SOUTH = 1; // encoding of the south wallboard of a cell: 2*cell+SOUTH
+
+	public MazeBuilderKruskal() {
+		super();
+		LOGGER.config("Using Kruskal's algorithm to generate maze.");
+	}
+
+	/**
+	 * This method generates pathways into the maze by using Kruskal's algorithm to generate a spanning tree.
+	 * Cells are nodes, wallboards that are torn down are edges of the spanning tree.
+	 * Each of the three passes over the wallboards checks for an interrupt every CHECK_INTERVAL steps.
+	 * @throws InterruptedException if the thread is interrupted during the generation
+	 */
+	@Override
+	protected void generatePathways() throws InterruptedException {
+		final DisjointSets components = new DisjointSets(width*height); // cell (x,y) is element y*width+x
+		final Wallboard wallboard = new Wallboard(0, 0, CardinalDirection.East);
+		// collect all internal wallboards that are not borders,
+		// encoded as 2*cell+EAST|SOUTH to avoid creating a Wallboard object for each
+		final int[] candidates = new int[2*width*height];
+		int n = 0;
+		for (int y = 0; y < height; y++) {
+			checkInterrupted(); // once per row
+			for (int x = 0; x < width; x++) {
+				final int cell = y*width+x;
+				if (x < width-1 && isCandidate(components, wallboard, x, y, cell, CardinalDirection.East))
+					candidates[n++] = 2*cell+EAST;
+				if (y < height-1 && isCandidate(components, wallboard, x, y, cell, CardinalDirection.South))
+					candidates[n++] = 2*cell+SOUTH;
+			}
+		}
+		// shuffle candidates (Fisher-Yates)
+		for (int i = n-1; i > 0; i--) {
+			if (0 == (i & (CHECK_INTERVAL-1)))
+				checkInterrupted();
+			final int j = random.nextIntWithinInterval(0, i);
+			final int tmp = candidates[i];
+			candidates[i] = candidates[j];
+			candidates[j] = tmp;
+		}
+		// tear down wallboards that connect two different sets
+		for (int i = 0; i < n && components.getCount() > 1; i++) {
+			if (0 == (i & (CHECK_INTERVAL-1)))
+				checkInterrupted();
+			final int w = candidates[i];
+			final int cell = w >> 1;
+			final boolean east = ((w & 1) == EAST);
+			if (components.union(cell, east ? cell+1 : cell+width)) {
+				wallboard.setLocationDirection(cell % width, cell / width, 
+						east ? CardinalDirection.East : CardinalDirection.South);
+				floorplan.deleteWallboard(wallboard);
+			}
+		}
+		assert components.getCount() == 1 : "Kruskal: maze is not connected, components: " + components.getCount();
+	}
+	/**
+	 * Tells if the wallboard of cell (x,y) in the given direction could be torn down.
+	 * If there is no wallboard, both cells are connected already and get merged.
+	 * @param components the connected components of cells
+	 * @param wallboard reused object to avoid allocations
+	 * @param x coordinate of cell, {@code 0 <= x < width}
+	 * @param y coordinate of cell, {@code 0 <= y < height}
+	 * @param cell index of cell (x,y)
+	 * @param cd either East or South
+	 * @return true if there is a wallboard that is not part of a border, false otherwise
+	 */
+	private boolean isCandidate(DisjointSets components, Wallboard wallboard, int x, int y, int cell, CardinalDirection cd) {
+		if (floorplan.hasNoWall(x, y, cd)) {
+			components.union(cell, (CardinalDirection.East == cd) ? cell+1 : cell+width);
+			return false;
+		}
+		wallboard.setLocationDirection(x, y, cd);
+		return !floorplan.isPartOfBorder(wallboard);
+	}
+}
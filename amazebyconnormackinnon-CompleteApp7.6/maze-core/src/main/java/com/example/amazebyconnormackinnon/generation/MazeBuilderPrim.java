@@ -1,6 +1,5 @@
 package com.example.amazebyconnormackinnon.generation;
 
-import java.util.ArrayList;
 import java.util.logging.Logger;
 
 
@@ -16,6 +15,12 @@ import java.util.logging.Logger;
  * Algorithm leaves wallboards in tact that carry the border flag.
  * Borders are used to keep the outside surrounding of the maze enclosed and 
  * to make sure that rooms retain outside walls and do not end up as open stalls. 
+ * 
+ * Candidate wallboards are kept in an int array where each entry encodes
+ * a cell index and a direction as {@code (cellIndex << 2) | direction.ordinal()}
+ * with {@code cellIndex = y*width+x}. A random candidate is extracted by moving
+ * the last entry into its place, so each step takes constant time
+ * and no objects are created per candidate.
  *   
  * @author Jones.Andrew, refactored by Peter Kemper
  */
@@ -35,9 +40,11 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 	 * This method generates pathways into the maze by using Prim's algorithm to generate a spanning tree for an undirected graph.
 	 * The cells are the nodes of the graph and the spanning tree. An edge represents that one can move from one cell to an adjacent cell.
 	 * So an edge implies that its nodes are adjacent cells in the maze and that there is no wallboard separating these cells in the maze. 
+	 * The loop checks for an interrupt every CHECK_INTERVAL cells that join the MST.
+	 * @throws InterruptedException if the thread is interrupted during the generation
 	 */
 	@Override
-	protected void generatePathways() {
+	protected void generatePathways() throws InterruptedException {
 		/*
 		 * The main idea of Prim's is to grow a single minimal spanning tree (MST).
 		 * This means a cell is either part of the one and only MST considered or not.
@@ -53,8 +60,8 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 		
 		// Initialization: an MST of 1 cell with a non-empty set of wallboards
 		// around it that we could tear down to expand the MST
-		final ArrayList<Wallboard> candidates = initMST();
-		assert(!candidates.isEmpty());
+		initMST();
+		assert(numCandidates > 0);
 		
 		// Expanding the MST till all cells are connected.
 		// Since each newly added cell contributes its wallboards that face
@@ -78,20 +85,23 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 		// After termination, many cells will be marked as visited, but some cells
 		// inside a room may not be marked as such although they belong to the MST.
 		//
-		Wallboard curWallboard;
+		final Wallboard curWallboard = new Wallboard(0, 0, CardinalDirection.East);
+		int added = 0; // number of cells added to the MST, used for checkpoints
 		// We need to consider each candidate wallboard and consider it only once
-		while(!candidates.isEmpty()){
+		while(numCandidates > 0){
 			// in order to have a randomized algorithm,
 			// we randomly select and extract a wallboard from our candidate set
 			// this also reduces the set to make sure we terminate the loop
-			curWallboard = extractWallboardFromCandidateSetRandomly(candidates);
+			extractWallboardFromCandidateSetRandomly(curWallboard);
 			// check if wallboard leads to a new cell that is not connected to the spanning tree yet
 			if (floorplan.canTearDown(curWallboard))
 			{
 				// delete wallboard from maze, note that this takes place from both directions
 				floorplan.deleteWallboard(curWallboard);
 				// add the adjacent cell to the MST and update the list of candidates		
-				addCellToMST(curWallboard.getNeighborX(), curWallboard.getNeighborY(), candidates);
+				addCellToMST(curWallboard.getNeighborX(), curWallboard.getNeighborY());
+				if (0 == (++added & (CHECK_INTERVAL-1)))
+					checkInterrupted();
 				
 				// note that each wallboard can get added to the list of candidates at most once. 
 				// This is important for termination and efficiency
@@ -102,15 +112,17 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 		// of wallboards that we are allowed to tear down and that would lead to a cell
 		// that is not part of the MST yet.
 		// So this must be it.
+		candidates = null;
 	}
 	/**
 	 * Initialize the MST by randomly selecting a cell as the initial, incomplete MST and populate the list 
 	 * of candidate wallboards that could be removed to expand the tree.
-	 * @return a non-empty list of candidate wallboards to expand the MST
+	 * The list of candidates is non-empty afterwards.
 	 */
-	private ArrayList<Wallboard> initMST() {
-		final ArrayList<Wallboard> result = new ArrayList<Wallboard>();
-		
+	private void initMST() {
+		// each cell joins the MST once and contributes at most 4 wallboards
+		candidates = new int[4*width*height];
+		numCandidates = 0;
 		
 		// create an initial list of all wallboards that could be removed
 		// for a randomly picked initial cell that should belong to the MST
@@ -130,9 +142,7 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 		// so we settled on the starting cell
 		
 		// we need to mark the cell as being part of the MST and add its wallboards to the list
-		addCellToMST(startX, startY, result);
-		
-		return result;
+		addCellToMST(startX, startY);
 	}
 
 	/**
@@ -140,19 +150,23 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 	 * that lead to cells outside of the MST to the list of candidates (unless they are borderwalls).
 	 * @param x the x coordinate of interest
 	 * @param y the y coordinate of interest
-	 * @param candidates the new elements should be added to, must not be null
 	 */
-	protected void addCellToMST(int x, int y, final ArrayList<Wallboard> candidates) {
+	protected void addCellToMST(int x, int y) {
 		floorplan.setCellAsVisited(x, y); // the flag is never reset, so this ensure we never go to (x,y) again
-		updateListOfWallboards(x, y, candidates); // checks to see if it has wallboards to new cells, if it does it adds them to the list
+		updateListOfWallboards(x, y); // checks to see if it has wallboards to new cells, if it does it adds them to the list
 	}
 	/**
-	 * Pick a random position in the list of candidates, remove the candidate from the list and return it
-	 * @param candidates is the list of candidates to randomly remove a wall board from
-	 * @return candidate from the list, randomly chosen
+	 * Pick a random position in the list of candidates, remove the candidate from the list 
+	 * and store it in the given wallboard.
+	 * The last candidate takes the place of the removed one, so this runs in constant time.
+	 * @param wallboard is set to the location and direction of the randomly chosen candidate
 	 */
-	private Wallboard extractWallboardFromCandidateSetRandomly(final ArrayList<Wallboard> candidates) {
-		return candidates.remove(random.nextIntWithinInterval(0, candidates.size()-1)); 
+	private void extractWallboardFromCandidateSetRandomly(final Wallboard wallboard) {
+		final int i = random.nextIntWithinInterval(0, numCandidates-1);
+		final int code = candidates[i];
+		candidates[i] = candidates[--numCandidates];
+		final int cell = code >> 2;
+		wallboard.setLocationDirection(cell % width, cell / width, DIRECTIONS[code & 3]);
 	}
 	
 
@@ -163,21 +177,24 @@ public class MazeBuilderPrim extends MazeBuilder implements Runnable {
 	 * corresponding wallboard is added to the list of wallboards.
 	 * @param x the x coordinate of interest
 	 * @param y the y coordinate of interest
-	 * @param wallboards the new elements should be added to, must not be null
 	 */
-	private void updateListOfWallboards(int x, int y, ArrayList<Wallboard> wallboards) {
+	private void updateListOfWallboards(int x, int y) {
 		if (reusedWallboard == null) {
 			reusedWallboard = new Wallboard(x, y, CardinalDirection.East) ;
 		}
-		for (CardinalDirection cd : CardinalDirection.values()) {
+		final int cell = y*width+x;
+		for (CardinalDirection cd : DIRECTIONS) {
 			reusedWallboard.setLocationDirection(x, y, cd);
 			if (floorplan.canTearDown(reusedWallboard)) // 
 			{
-				wallboards.add(new Wallboard(x, y, cd));
+				candidates[numCandidates++] = (cell << 2) | cd.ordinal();
 			}
 		}
 	}
 	// exclusively used in updateListOfWallboards
 	Wallboard reusedWallboard; // reuse a wallboard in updateListOfWallboards to avoid repeated object instantiation
+	// candidate wallboards, encoded as (cellIndex << 2) | direction.ordinal()
+	private int[] candidates;
+	private int numCandidates; // candidates[0..numCandidates-1] are valid entries
 
 }
\ No newline at end of file
@@ -0,0 +1,199 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+/**
+ * This class keeps mazes that have been generated before such that
+ * an order with the same parameters can be served without a new generation.
+ * The parameters are the skill level, the builder algorithm, the perfect flag
+ * and the seed, since a seed results in the same maze for the same parameters.
+ *
+ * The cache has a memory budget in bytes. The size of each maze is estimated
+ * from its dimensions and its BSP tree, and the least recently used mazes
+ * are evicted until all remaining ones fit into the budget.
+ * A maze that is larger than the whole budget is not kept.
+ *
+ * Mazes are shared, not copied. Walls are marked as seen while a maze is
+ * played, so the cache resets these marks before it hands out a maze again.
+ * All methods are thread safe.
+ *
+ * @see MazeFactory#setCache(MazeCache)
+ */
+public class MazeCache {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MazeCache.class.getName());
+	// estimates for the memory of objects in the BSP tree, in bytes
+	static final int WALL_BYTES = 64 ; // a Wall with its fields and object header
+	static final int NODE_BYTES = 56 ; // a BSPBranch or a BSPLeaf with its list
+
+	private final long budget ; // maximum total size in bytes
+	private long size ; // current total size in bytes
+	private int hits ; // number of successful lookups
+	private int misses ; // number of failed lookups
+	// entries in access order, the eldest one is the least recently used
+	private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * Constructor
+	 * @param budget the memory budget in bytes, {@code 0 < budget}
+	 */
+	public MazeCache(long budget) {
+		assert 0 < budget : "Budget must be positive";
+		this.budget = budget ;
+	}
+
+	/**
+	 * Gives the maze that was generated for the parameters of the given order.
+	 * The maze becomes the most recently used one.
+	 * @param order specifies the maze
+	 * @return the maze, null if the cache does not have it
+	 */
+	public synchronized Maze get(Order order) {
+		final Entry entry = entries.get(new Key(order));
+		if (null == entry) {
+			misses++;
+			return null;
+		}
+		hits++;
+		resetSeen(entry.maze.getRootnode());
+		return entry.maze;
+	}
+	/**
+	 * Keeps the given maze for the parameters of the given order
+	 * and evicts least recently used mazes as needed.
+	 * @param order specifies the maze
+	 * @param maze the maze that was generated for the order
+	 */
+	public synchronized void put(Order order, Maze maze) {
+		final long mazeSize = estimateSize(maze);
+		final Key key = new Key(order);
+		final Entry previous = entries.remove(key);
+		if (null != previous)
+			size -= previous.size;
+		if (mazeSize > budget) {
+			LOGGER.fine("Maze of " + mazeSize + " bytes exceeds budget, not cached");
+			return;
+		}
+		entries.put(key, new Entry(maze, mazeSize));
+		size += mazeSize;
+		final Iterator<Entry> it = entries.values().iterator();
+		while (size > budget) {
+			final Entry eldest = it.next();
+			size -= eldest.size;
+			it.remove();
+		}
+	}
+	/**
+	 * Removes all mazes.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+	}
+	/**
+	 * @return the number of mazes in the cache
+	 */
+	public synchronized int getCount() {
+		return entries.size();
+	}
+	/**
+	 * @return the estimated total size of all mazes in bytes
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+	/**
+	 * @return the memory budget in bytes
+	 */
+	public long getBudget() {
+		return budget;
+	}
+	/**
+	 * @return the number of lookups that found a maze
+	 */
+	public synchronized int getHits() {
+		return hits;
+	}
+	/**
+	 * @return the number of lookups that did not find a maze
+	 */
+	public synchronized int getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Estimates the memory that a maze takes.
+	 * It counts the cells of the floorplan, the distance matrix
+	 * and the walls and nodes of the BSP tree.
+	 * @param maze a fully initialized maze
+	 * @return the estimated size in bytes
+	 */
+	static long estimateSize(Maze maze) {
+		final long cells = (long) maze.getWidth() * maze.getHeight();
+		final int bytesPerCell = (Floorplan.Storage.Compact == maze.getFloorplan().getStorage()) ? 2 : 4;
+		final BSPTreeStatistics tree = new BSPTreeStatistics(maze.getRootnode());
+		return cells * bytesPerCell  // floorplan
+				+ cells * 4 + 16L * maze.getWidth() // distance matrix with its row arrays
+				+ (long) tree.getWalls() * WALL_BYTES
+				+ (long) (tree.getBranches() + tree.getLeaves()) * NODE_BYTES;
+	}
+	/**
+	 * Marks all walls in the given tree as not seen.
+	 * @param node the root of a BSP tree
+	 */
+	private static void resetSeen(BSPNode node) {
+		if (node.isIsleaf()) {
+			for (Wall wall : ((BSPLeaf) node).getAllWalls())
+				wall.setSeen(false);
+			return;
+		}
+		resetSeen(((BSPBranch) node).getLeftBranch());
+		resetSeen(((BSPBranch) node).getRightBranch());
+	}
+
+	/**
+	 * The parameters of an order that determine the maze.
+	 */
+	private static final class Key {
+		private final int skillLevel;
+		private final Order.Builder builder;
+		private final boolean perfect;
+		private final int seed;
+
+		Key(Order order) {
+			skillLevel = order.getSkillLevel();
+			builder = order.getBuilder();
+			perfect = order.isPerfect();
+			seed = order.getSeed();
+		}
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key))
+				return false;
+			final Key key = (Key) other;
+			return skillLevel == key.skillLevel && builder == key.builder
+					&& perfect == key.perfect && seed == key.seed;
+		}
+		@Override
+		public int hashCode() {
+			return ((skillLevel * 31 + builder.hashCode()) * 31 + (perfect ? 1 : 0)) * 31 + seed;
+		}
+	}
+	/**
+	 * A maze with its estimated size.
+	 */
+	private static final class Entry {
+		private final Maze maze;
+		private final long size;
+
+		Entry(Maze maze, long size) {
+			this.maze = maze;
+			this.size = size;
+		}
+	}
+}
@@ -0,0 +1,26 @@
+package com.example.amazebyconnormackinnon.generation;
+/**
+ * This class contains the constants that the generation package
+ * shares with its clients: the dimensions that correspond to a skill level
+ * and the unit that maps a cell to the coordinates of walls.
+ * The gui package has its own Constants class for everything
+ * that concerns the display only.
+ *
+ * @author Peter Kemper
+ *
+ */
+public class MazeConstants {
+	// Length of a cell in the coordinates of walls and of the view
+	public static final int MAP_UNIT = 128;
+	// Skill-level
+	// The user picks a skill level between 0 - 9, a-f
+	// The following arrays transform this into corresponding dimensions (x,y)
+	// for the resulting maze as well as the number of rooms
+	// Example: level 3 is a 20 x 15 maze with at most 3 randomly positioned rooms
+	// Special case: level 0 has 0 rooms
+	// Quadratic mazes: levels 0, 1, 2, 5, 7, 8, 9, 10 yield squares
+	public static final int[] SKILL_X =     { 4, 12, 15, 20, 25, 25, 35, 35, 40, 60, 70, 80, 90, 110, 150, 300 };
+	public static final int[] SKILL_Y =     { 4, 12, 15, 15, 20, 25, 25, 35, 40, 60, 70, 75, 75,  90, 120, 240 };
+	public static final int[] SKILL_ROOMS = { 0,  2,  2,  3,  4,  5, 10, 10, 20, 45, 45, 50, 50,  60,  80, 160 };
+	public static final int MAX_SKILL_LEVEL = 15;
+}
@@ -3,8 +3,6 @@
  */
 package com.example.amazebyconnormackinnon.generation;
 
-import com.example.amazebyconnormackinnon.gui.Constants;
-
 /**
  * Class encapsulates access to all information that constitutes a maze.
  * 
@@ -32,9 +30,9 @@ import com.example.amazebyconnormackinnon.gui.Constants;
 public class MazeContainer implements Maze {
 	// properties of the current maze
 	private int width; // width of maze
-	// range: Constants.SKILL_X[0] <= width && width <= Constants.SKILL_X[last])
+	// range: MazeConstants.SKILL_X[0] <= width && width <= MazeConstants.SKILL_X[last])
 	private int height; // height of maze
-	// range: Constants.SKILL_Y[0] <= width && width <= Constants.SKILL_Y[last])
+	// range: MazeConstants.SKILL_Y[0] <= width && width <= MazeConstants.SKILL_Y[last])
 	// (width,height) must be consistent with corresponding settings in mazecells and mazedists
 	private Floorplan floorplan ; // maze as a matrix of cells which keep track of the location of wallboards
 	private Distance mazedists ; // a matrix with distance values for each cell towards the exit
@@ -72,8 +70,8 @@ public class MazeContainer implements Maze {
 	}
 	/**
 	 * Constructor with values for all attributes, delivers a fully operational maze
-	 * @param width is the width of the maze, must conform with Constants.SKILL_X values
-	 * @param height is the height of the maze, must conform with Constants.SKILL_Y values
+	 * @param width is the width of the maze, must conform with MazeConstants.SKILL_X values
+	 * @param height is the height of the maze, must conform with MazeConstants.SKILL_Y values
 	 * @param floorplan the floorplan to set, must not be null
 	 * @param mazedists the mazedists to set, must be not null
 	 * @param root the rootnode to set, must be not null
@@ -92,11 +90,11 @@ public class MazeContainer implements Maze {
 			"constructor for operational maze received faulty input!";
 	}
 	/**
-	 * @param width is the width of the maze, must conform with Constants.SKILL_X values
+	 * @param width is the width of the maze, must conform with MazeConstants.SKILL_X values
 	 */
 	public void setWidth(int width) {
-		assert(Constants.SKILL_X[0] <= width && 
-				width <= Constants.SKILL_X[Constants.SKILL_X.length-1]);
+		assert(MazeConstants.SKILL_X[0] <= width && 
+				width <= MazeConstants.SKILL_X[MazeConstants.SKILL_X.length-1]);
 		this.width = width;
 	}
 	/**
@@ -108,12 +106,12 @@ public class MazeContainer implements Maze {
 		return width;
 	}
 	/**
-	 * @param height is the height of the maze, must conform with Constants.SKILL_Y values
+	 * @param height is the height of the maze, must conform with MazeConstants.SKILL_Y values
 	 */
 	public void setHeight(int height) {
 		// check if value is in range of values
-		assert(Constants.SKILL_Y[0] <= height && 
-				height <= Constants.SKILL_Y[Constants.SKILL_Y.length-1]);	
+		assert(MazeConstants.SKILL_Y[0] <= height && 
+				height <= MazeConstants.SKILL_Y[MazeConstants.SKILL_Y.length-1]);	
 		this.height = height;
 	}
 	/**
@@ -341,11 +339,11 @@ public class MazeContainer implements Maze {
 		}
 		// check width and height, range of values determined by skill level
 		// Constants class
-		int last = Constants.SKILL_X.length-1;
-		if (!(Constants.SKILL_X[0] <= width && width <= Constants.SKILL_X[last])) {
+		int last = MazeConstants.SKILL_X.length-1;
+		if (!(MazeConstants.SKILL_X[0] <= width && width <= MazeConstants.SKILL_X[last])) {
 			return false;
 		}
-		if (!(Constants.SKILL_Y[0] <= height && height <= Constants.SKILL_Y[last])) {
+		if (!(MazeConstants.SKILL_Y[0] <= height && height <= MazeConstants.SKILL_Y[last])) {
 			return false;
 		}
 		// check existence of cells, distances, bsp tree and starting position
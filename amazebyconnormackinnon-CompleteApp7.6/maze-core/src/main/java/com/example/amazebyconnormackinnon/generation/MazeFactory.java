@@ -0,0 +1,467 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * This class encapsulates how a maze is generated.
+ * It takes orders to produce a maze, delegates it to the matching maze builder
+ * that computes and delivers the maze. This class operates the worker thread
+ * to do the computation in the background. The maze builder classes contribute
+ * a run method to execute on the worker thread.
+ *
+ * By default the factory takes at most one order at a time and
+ * starts a new thread for it. In pooled mode the factory accepts orders
+ * into a bounded queue and runs them on a fixed number of worker threads,
+ * each order can be cancelled and waited for on its own.
+ * In both modes orderAsync offers the same service with a future
+ * instead of callbacks only.
+ * With a MazeCache, an order for a maze that was generated before
+ * is delivered right away from the cache.
+ * A TelemetryListener receives figures on time and memory
+ * spent in each phase of a generation.
+ * Each builder draws from a random number stream of its own, so a seed
+ * results in the same maze no matter how many orders run at the same time.
+ */
+public class MazeFactory implements Factory {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MazeFactory.class.getName());
+
+	// factory keeps track of the current order, takes at most one order at a time
+	private Order currentOrder;
+	// factory has a MazeBuilder to do the work
+	// note that subclasses are instantiated for specific algorithms such as Prim's
+	// according to the given order
+	private MazeBuilder builder;
+	//
+	private Thread buildThread; // computations are performed in own separated thread with this.run()
+
+	// pooled mode: executor with bounded queue, null for the single thread mode
+	private final ThreadPoolExecutor executor;
+	// pooled mode: orders that are queued or in progress, removed when done
+	private final ConcurrentHashMap<Order, OrderTask> pending = new ConcurrentHashMap<>();
+	// optional cache for generated mazes, null if not used
+	private volatile MazeCache cache;
+	// priority of threads that build mazes
+	private volatile int threadPriority = Thread.NORM_PRIORITY;
+	// optional listener for generation telemetry, null if not used
+	private volatile TelemetryListener telemetryListener;
+
+	//////////////////////// Constructor ////////////////////////////////////////
+	/**
+	 * Constructor for a randomized maze generation
+	 */
+	public MazeFactory(){
+		executor = null;
+	}
+	/**
+	 * Constructor for a factory in pooled mode that works on
+	 * several orders at the same time.
+	 * Orders are refused while the queue is full.
+	 * Worker threads are daemon threads, call {@link #shutdown() shutdown}
+	 * to release them when the factory is no longer needed.
+	 * @param threads number of orders that are built at the same time, {@code 0 < threads}
+	 * @param capacity number of orders that can wait for a thread, {@code 0 < capacity}
+	 */
+	public MazeFactory(int threads, int capacity){
+		assert 0 < threads : "Number of threads must be positive";
+		assert 0 < capacity : "Capacity must be positive";
+		executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(capacity), new BuilderThreadFactory());
+	}
+
+	//////////////////////// Factory interface //////////////////////////////////
+	@Override
+	public boolean order(Order order) {
+		if (deliverFromCache(order))
+			return true;
+		if (null != executor)
+			return queueOrder(order);
+		// check if factory is busy
+		if (null != buildThread && buildThread.isAlive()) {
+			// order is currently processed, don't queue, just refuse
+			LOGGER.warning("Refusing to take order, too busy with current order");
+			return false;
+		}
+		// idle, so accept order
+		builder = createBuilder(order);
+		if (null == builder)
+			return false;
+		builder.setTelemetryListener(telemetryListener);
+		currentOrder = order;
+		buildOrder();
+		return true ;
+	}
+	/**
+	 * Cancels the current order.
+	 * In pooled mode it cancels all orders that are not completed yet.
+	 */
+	@Override
+	public void cancel() {
+		LOGGER.fine("Received call to cancel current order");
+		if (null != executor) {
+			for (Order order : new ArrayList<>(pending.keySet()))
+				cancel(order);
+			return;
+		}
+		if (null != buildThread) {
+			buildThread.interrupt() ;
+			buildThread = null; // allow for next order to get through
+		}
+		else {
+			LOGGER.warning("Received call to cancel current order, but there is no thread to stop");
+		}
+		// clean up happens in interrupt handling in run method
+		builder = null;
+		currentOrder = null;
+	}
+	/**
+	 * Waits till the current order is delivered.
+	 * In pooled mode it waits till all orders accepted so far are
+	 * delivered or cancelled.
+	 */
+	@Override
+	public void waitTillDelivered() {
+		if (null != executor) {
+			for (Order order : new ArrayList<>(pending.keySet()))
+				waitTillDelivered(order);
+			return;
+		}
+		if (null != buildThread) {
+			try {
+				buildThread.join();
+			} catch (Exception e) {
+				LOGGER.severe("Join synchronization with builder thread lead to an exception") ;
+			}
+		}
+		else {
+			LOGGER.warning("Received call to wait for thread to finish, but there is no thread to wait for");
+		}
+		builder = null;
+		currentOrder = null;
+	}
+
+	/**
+	 * Sets the cache for generated mazes. Orders that the cache has a maze for
+	 * are delivered within the call of order, other mazes are put into
+	 * the cache once they are delivered.
+	 * @param cache the cache to use, null to generate every maze
+	 */
+	public void setCache(MazeCache cache) {
+		this.cache = cache;
+	}
+	/**
+	 * @return the cache for generated mazes, null if there is none
+	 */
+	public MazeCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Sets the listener for generation telemetry. It receives figures
+	 * on every phase of the generation right before a maze is delivered,
+	 * mazes from the cache have no telemetry.
+	 * It applies to orders that are placed after the call.
+	 * @param listener the listener to notify, null to not collect telemetry
+	 */
+	public void setTelemetryListener(TelemetryListener listener) {
+		telemetryListener = listener;
+	}
+	/**
+	 * @return the listener for generation telemetry, null if there is none
+	 */
+	public TelemetryListener getTelemetryListener() {
+		return telemetryListener;
+	}
+
+	/**
+	 * Sets the priority of the threads that build mazes.
+	 * In single thread mode it also applies to the order in progress,
+	 * in pooled mode it applies to orders that start after the call.
+	 * A builder below normal priority builds its BSP tree on its own thread
+	 * instead of the shared fork/join pool.
+	 * @param priority between Thread.MIN_PRIORITY and Thread.MAX_PRIORITY
+	 */
+	public void setThreadPriority(int priority) {
+		assert Thread.MIN_PRIORITY <= priority && priority <= Thread.MAX_PRIORITY : "Invalid thread priority";
+		threadPriority = priority;
+		final Thread thread = buildThread;
+		if (null != thread)
+			thread.setPriority(priority);
+	}
+
+	//////////////////////// Asynchronous API ///////////////////////////////////
+	/**
+	 * Takes an order and returns a future for the maze.
+	 * The given order still receives all progress updates and the
+	 * delivery, so a DefaultOrder works as before.
+	 * The future completes with the delivered maze, or exceptionally
+	 * with a RejectedExecutionException if the factory refuses the order,
+	 * with a CancellationException if it is cancelled, or with the
+	 * exception that stopped the builder.
+	 * @param order specifies what kind of maze is wanted
+	 * @return the future for the maze, subscribe to it for progress updates
+	 */
+	@RequiresApi(24)
+	public MazeFuture orderAsync(Order order) {
+		final MazeFuture future = new MazeFuture(this, order);
+		if (!order(future.getFactoryOrder()))
+			future.completeExceptionally(new RejectedExecutionException("Factory refused order"));
+		return future;
+	}
+	/**
+	 * Cancels an order that was placed with orderAsync.
+	 * @param order the order that the factory works on
+	 */
+	void cancelAsync(Order order) {
+		if (null != executor)
+			cancel(order);
+		else if (currentOrder == order)
+			cancel();
+	}
+
+	//////////////////////// Pooled mode ////////////////////////////////////////
+	/**
+	 * Cancels the given order if it is not completed yet.
+	 * A queued order is dropped, an order in progress is interrupted.
+	 * Works in pooled mode only.
+	 * @param order an order that was accepted by this factory
+	 */
+	public void cancel(Order order) {
+		assert null != executor : "Per order cancel requires pooled mode";
+		final OrderTask task = pending.get(order);
+		if (null == task) {
+			LOGGER.fine("Received call to cancel order, but it is not pending");
+			return;
+		}
+		// interrupts the worker thread, clean up happens in interrupt handling in run method
+		task.cancel(true);
+		executor.remove(task);
+	}
+	/**
+	 * Waits till the given order is delivered or cancelled.
+	 * Returns immediately if the order is not pending.
+	 * Works in pooled mode only.
+	 * @param order an order that was accepted by this factory
+	 */
+	public void waitTillDelivered(Order order) {
+		assert null != executor : "Per order wait requires pooled mode";
+		final OrderTask task = pending.get(order);
+		if (null == task)
+			return;
+		try {
+			task.get();
+		} catch (CancellationException e) {
+			LOGGER.fine("Order was cancelled before delivery");
+		} catch (InterruptedException e) {
+			LOGGER.severe("Waiting for order was interrupted") ;
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			LOGGER.severe("Builder for order failed with an exception: " + e.getCause()) ;
+		} finally {
+			// waiters wake up before done() is called
+			if (task.isDone())
+				pending.remove(order, task);
+		}
+	}
+	/**
+	 * Gives the orders that are queued or in progress.
+	 * @return list of pending orders, empty in single thread mode
+	 */
+	public List<Order> getPendingOrders() {
+		return new ArrayList<>(pending.keySet());
+	}
+	/**
+	 * Stops the worker threads of a factory in pooled mode.
+	 * Orders that are already accepted are still built,
+	 * new orders are refused.
+	 */
+	public void shutdown() {
+		if (null != executor)
+			executor.shutdown();
+	}
+
+	///////////////////////// private methods ///////////////////////////////////
+	/**
+	 * Instantiates the builder for the algorithm that the order asks for.
+	 * @param order specifies the builder algorithm
+	 * @return a new builder, null if the algorithm is not supported
+	 */
+	static MazeBuilder createBuilder(Order order) {
+		// set builder according to order
+		switch (order.getBuilder()) {
+		case DFS :
+			return new MazeBuilder();
+		case Prim:
+			return new MazeBuilderPrim();
+		case Kruskal:
+			return new MazeBuilderKruskal();
+		case Eller:
+			return new MazeBuilderEller();
+		case Boruvka:
+			return new MazeBuilderBoruvka();
+		default:
+			LOGGER.severe("Missing implementation for requested algorithm: " + order.getBuilder());
+			return null;
+		}
+	}
+	/**
+	 * Delivers the maze for the given order from the cache if it is there.
+	 * @param order specifies what kind of maze is wanted
+	 * @return true if the maze is delivered, false if it needs to be generated
+	 */
+	private boolean deliverFromCache(Order order) {
+		final MazeCache mazeCache = cache;
+		if (null == mazeCache)
+			return false;
+		final Maze maze = mazeCache.get(order);
+		if (null == maze)
+			return false;
+		LOGGER.fine("Delivering maze from cache") ;
+		order.updateProgress(100); // Order interface promises to communicate 100% upon delivery
+		order.deliver(maze);
+		return true;
+	}
+	/**
+	 * Gives the order to hand to a builder such that the delivered
+	 * maze is put into the cache.
+	 * @param order the order to build
+	 * @return the given order if there is no cache, a forwarding order otherwise
+	 */
+	private Order withCache(Order order) {
+		final MazeCache mazeCache = cache;
+		if (null == mazeCache)
+			return order;
+		return new ForwardingOrder(order) {
+			@Override
+			public void deliver(Maze mazeConfig) {
+				mazeCache.put(this, mazeConfig);
+				super.deliver(mazeConfig);
+			}
+		};
+	}
+	/**
+	 * Provide the builder with necessary input and start its execution
+	 */
+	private void buildOrder() {
+		if (null == builder)
+			return;
+		LOGGER.fine("Starting background thread to build the ordered maze") ;
+		builder.buildOrder(withCache(currentOrder));
+		if (currentOrder instanceof MazeFuture.FutureOrder) {
+			final MazeBuilder orderBuilder = builder;
+			final MazeFuture.FutureOrder order = (MazeFuture.FutureOrder) currentOrder;
+			buildThread = new Thread(() -> {
+				try {
+					orderBuilder.run();
+				} catch (RuntimeException | Error e) {
+					order.builderFinished(e);
+					throw e;
+				}
+				order.builderFinished(null);
+			});
+		}
+		else {
+			buildThread = new Thread(builder);
+		}
+		buildThread.setPriority(threadPriority);
+		buildThread.start();
+	}
+	/**
+	 * Puts the order in the queue of the executor.
+	 * @param order specifies what kind of maze is wanted
+	 * @return true if order is accepted, false if the queue is full,
+	 * the order is already pending or the factory is shut down
+	 */
+	private boolean queueOrder(Order order) {
+		final MazeBuilder orderBuilder = createBuilder(order);
+		if (null == orderBuilder)
+			return false;
+		orderBuilder.setTelemetryListener(telemetryListener);
+		final OrderTask task = new OrderTask(order, orderBuilder);
+		if (null != pending.putIfAbsent(order, task)) {
+			LOGGER.warning("Refusing to take order, it is already pending");
+			return false;
+		}
+		try {
+			executor.execute(task);
+		} catch (RejectedExecutionException e) {
+			LOGGER.warning("Refusing to take order, queue is full");
+			pending.remove(order, task);
+			return false;
+		}
+		return true;
+	}
+	/**
+	 * Task for an order in pooled mode,
+	 * it removes the order from the pending orders once it is done.
+	 */
+	private final class OrderTask extends FutureTask<Void> {
+		private final Order order;
+		private final MazeBuilder builder;
+
+		OrderTask(Order order, MazeBuilder builder) {
+			super(builder, null);
+			this.order = order;
+			this.builder = builder;
+		}
+		@Override
+		public void run() {
+			// buildOrder allocates the floorplan, so it is delayed till a thread is available
+			Thread.currentThread().setPriority(threadPriority);
+			if (!isDone())
+				builder.buildOrder(withCache(order));
+			super.run();
+		}
+		@Override
+		protected void done() {
+			pending.remove(order, this);
+			if (order instanceof MazeFuture.FutureOrder)
+				((MazeFuture.FutureOrder) order).builderFinished(getFailure());
+		}
+		/**
+		 * @return the exception that stopped the builder, null if it returned normally or was cancelled
+		 */
+		private Throwable getFailure() {
+			try {
+				get();
+			} catch (ExecutionException e) {
+				return e.getCause();
+			} catch (CancellationException | InterruptedException e) {
+				// cancelled, the future is already cancelled as well
+			}
+			return null;
+		}
+	}
+	/**
+	 * Creates named daemon threads for the executor such that
+	 * an idle factory does not keep the application alive.
+	 */
+	private static final class BuilderThreadFactory implements ThreadFactory {
+		private static final AtomicInteger FACTORIES = new AtomicInteger();
+		private final int factory = FACTORIES.incrementAndGet();
+		private final AtomicInteger threads = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable r) {
+			final Thread thread = new Thread(r, "MazeFactory-" + factory + "-builder-" + threads.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
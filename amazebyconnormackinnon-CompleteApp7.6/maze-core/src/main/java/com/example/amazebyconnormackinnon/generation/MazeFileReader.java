@@ -0,0 +1,702 @@
+/**
+ * 
+ */
+package com.example.amazebyconnormackinnon.generation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * This class provides functionality to read the content of a Maze object from a file. 
+ * File format is XML or binary and produced with MazeFileWriter.
+ * The format is recognized from the first bytes of the file.
+ * An XML file is read in a single streaming pass, the document is not held in memory.
+ * A binary file is memory mapped and its tables are read in place.
+ * The class is a simple wrapper to make all fields of a Maze object accessible 
+ * such that with the help of this class it is straightforward
+ * to instantiate a MazeConfiguration object.
+ * 
+ *
+ */
+public class MazeFileReader {
+
+	// fields of maze configuration object
+	private int width ;
+	private int height ;
+	private int rooms ;
+	private int[][] dists ;
+	private int expected_partiters ;
+	private Floorplan cells ;
+	private int startx ;
+	private int starty ;
+	private BSPNode root ;
+
+	/**
+	 * Constructor reads maze data from given file. The file format is the XML or the binary format produced by the MazeFileWriter class.
+	 * If the file can not be read, the error is printed and the fields
+	 * that could not be read remain unset, use read to get the error instead.
+	 *  
+	 * @param filename with data of a Maze object
+	 */
+	public MazeFileReader(String filename) {
+		try {
+			load(filename) ;
+		}
+		catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	private MazeFileReader() {
+	}
+	/**
+	 * Reads maze data from given file like the constructor but reports 
+	 * a file that can not be read or is inconsistent.
+	 * @param filename with data of a Maze object
+	 * @return a reader with all fields of the maze set
+	 * @throws IOException if the file can not be read or its content is incomplete or inconsistent
+	 */
+	public static MazeFileReader read(String filename) throws IOException {
+		MazeFileReader reader = new MazeFileReader() ;
+		reader.load(filename) ;
+		return reader ;
+	}
+
+	/**
+	 * Provides the data loaded from file wrapped in a MazeConfiguration.
+	 * @return maze configuration loaded from file
+	 */
+	Maze getMazeConfiguration() {
+		Maze mazeConfig = new MazeContainer() ;
+		mazeConfig.setHeight(getHeight());
+		mazeConfig.setWidth(getWidth());
+		mazeConfig.setFloorplan(getCells());
+		Distance dists = new Distance(getDistances()) ;
+		mazeConfig.setMazedists(dists);
+		mazeConfig.setRootnode(getRootNode());
+		mazeConfig.setStartingPosition(getStartX(), getStartY());
+		return mazeConfig;
+	}
+	/////////////////// set of straightforward get methods //////////////
+	int getWidth() {
+		return width ;
+	}
+	int getHeight() {
+		return height ;
+	}
+	int getRooms() {
+		return rooms ;
+	}
+	int[][] getDistances() {
+		return dists ;
+	}
+	int getExpectedPartiters() {
+		return expected_partiters ;
+	}
+	Floorplan getCells() {
+		return cells ;
+	}
+	int getStartX() {
+		return startx ;
+	}
+	int getStartY() {
+		return starty ;
+	}
+	BSPNode getRootNode() {
+		return root ;
+	}
+	
+	/**
+	 * Method provides main functionality to read all attributes of maze object from the given file.
+	 * The file is parsed in a single pass with a SAX parser, each element is looked at once
+	 * and its value goes straight into the arrays for cells and distances or into
+	 * the record of its BSP node. The tree of BSP nodes is built from these records
+	 * after parsing, so the effort is linear in the size of the file.
+	 * Requires that the size of the maze precedes cells and distances, as MazeFileWriter writes it.
+	 * @param filename gives the input file
+	 * @throws IOException if the file can not be read or its content is incomplete or inconsistent
+	 */
+	private void load(String filename) throws IOException
+	{
+		try{
+			if (loadBinary(filename))
+				return;
+			SAXParser parser = SAXParserFactory.newInstance().newSAXParser();
+			MazeHandler handler = new MazeHandler();
+			parser.parse(new File(filename), handler);
+			if (null == cells || null == dists)
+				throw new IOException("MazeFileReader: no cells or distances in " + filename);
+			// build tree of BSPNodes
+			if (!handler.nodes.isEmpty()) {
+				number = 0 ; // field used as an index, that is shared an updated across recursive readBSPNode calls
+				root = readBSPNode(handler.nodes);
+			}
+		}
+		catch (SAXException | ParserConfigurationException | RuntimeException e) {
+			throw new IOException("MazeFileReader: can not read " + filename, e);
+		}
+	}
+
+	/**
+	 * Reads all attributes of a maze object from a file in the binary format
+	 * of MazeFileWriter.storeBinary. The file is memory mapped, cells and distances
+	 * are copied from the map into the floorplan and the distance matrix 
+	 * or decoded with MatrixCodec if the file holds them encoded, 
+	 * nodes and walls are read in place while the tree of BSP nodes is built.
+	 * @param filename gives the input file
+	 * @return true if the file is in the binary format and has been read, false if it is in another format
+	 * @throws IOException if the file can not be read or its content is inconsistent
+	 */
+	private boolean loadBinary(String filename) throws IOException {
+		try (RandomAccessFile file = new RandomAccessFile(filename, "r"); FileChannel channel = file.getChannel()) {
+			final long size = channel.size();
+			if (size < 4L*MazeFileWriter.BINARY_HEADER_INTS || Integer.MAX_VALUE < size)
+				return false;
+			final MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			if (MazeFileWriter.BINARY_MAGIC != map.getInt())
+				return false;
+			final int version = map.getInt();
+			if (version < 1 || MazeFileWriter.BINARY_VERSION < version)
+				throw new IOException("MazeFileReader: unsupported version " + version + " of binary format in " + filename);
+			final int flags = map.getInt();
+			final boolean cells16 = (flags & MazeFileWriter.CELLS_16) != 0;
+			final boolean encoded = (flags & (MazeFileWriter.DELTA | MazeFileWriter.DEFLATED)) != 0;
+			if (encoded && version < 2)
+				throw new IOException("MazeFileReader: encoded cells in version " + version + " of binary format in " + filename);
+			width = map.getInt();
+			height = map.getInt();
+			rooms = map.getInt();
+			expected_partiters = map.getInt();
+			startx = map.getInt();
+			starty = map.getInt();
+			final int nodeCount = map.getInt();
+			final int wallCount = map.getInt();
+			// check the size of the file before anything is allocated,
+			// encoded values take at least a byte each and deflate compresses them by less than 1:1032
+			final long numCells = (long) width*height;
+			final long cellBytes = cells16 ? 4*((numCells+1)/2) : 4*numCells;
+			final long tableBytes = 4L*MazeFileWriter.NODE_INTS*nodeCount + 4L*MazeFileWriter.WALL_INTS*wallCount;
+			if (width <= 0 || height <= 0 || nodeCount <= 0 || wallCount < 0
+					|| (!encoded && size != 4L*MazeFileWriter.BINARY_HEADER_INTS + cellBytes + 4*numCells + tableBytes)
+					|| (encoded && size < 4L*MazeFileWriter.BINARY_HEADER_INTS + 8 + 2*(numCells/1032) + tableBytes))
+				throw new IOException("MazeFileReader: sizes in header do not match size of " + filename);
+			cells = new Floorplan(width, height, (cells16 && numCells >= MazeBuilder.COMPACT_FLOORPLAN_SIZE) ? 
+					Floorplan.Storage.Compact : Floorplan.Storage.Int);
+			if (encoded) {
+				// cells and distances are decoded from their blocks, nodes and walls follow
+				final boolean deflated = (flags & MazeFileWriter.DEFLATED) != 0;
+				dists = new int[width][height];
+				MatrixCodec.decodeCells(readBlock(map, filename), cells, width, height, deflated);
+				MatrixCodec.decodeDistances(readBlock(map, filename), dists, width, height, deflated);
+				if (map.remaining() != tableBytes)
+					throw new IOException("MazeFileReader: sizes in header do not match size of " + filename);
+				final IntBuffer table = map.asIntBuffer();
+				number = 0 ;
+				root = readBSPNode(table, 0, MazeFileWriter.NODE_INTS*nodeCount, nodeCount, wallCount);
+				return true;
+			}
+			// cells, row by row
+			final int[] row = new int[width];
+			if (cells16) {
+				final ShortBuffer values = map.asShortBuffer();
+				for (int y = 0; y != height; y++) {
+					for (int x = 0; x != width; x++)
+						row[x] = values.get() & 0xFFFF;
+					cells.setRow(y, row);
+				}
+			}
+			else {
+				final IntBuffer values = map.asIntBuffer();
+				for (int y = 0; y != height; y++) {
+					values.get(row, 0, width);
+					cells.setRow(y, row);
+				}
+			}
+			map.position(map.position() + (int) cellBytes);
+			// distances, column by column
+			final IntBuffer table = map.asIntBuffer();
+			dists = new int[width][height];
+			for (int x = 0; x != width; x++)
+				table.get(dists[x]);
+			// tree of BSP nodes from the tables of nodes and walls
+			number = 0 ;
+			root = readBSPNode(table, table.position(), table.position() + MazeFileWriter.NODE_INTS*nodeCount, nodeCount, wallCount);
+			return true;
+		}
+	}
+	/**
+	 * Reads a block written by MazeFileWriter.writeBlock: the number of bytes, 
+	 * the bytes and padding up to a multiple of 4 bytes.
+	 * @param map the content of the file, positioned at the block
+	 * @param filename gives the input file for error messages
+	 * @return the bytes of the block
+	 * @throws IOException if the block extends beyond the end of the file
+	 */
+	private static byte[] readBlock(ByteBuffer map, String filename) throws IOException {
+		final int length = (4 <= map.remaining()) ? map.getInt() : -1;
+		final long padded = (length + 3L) & ~3L;
+		if (length < 0 || map.remaining() < padded)
+			throw new IOException("MazeFileReader: block of encoded values ends beyond the end of " + filename);
+		final byte[] block = new byte[length];
+		map.get(block);
+		map.position(map.position() + (int) (padded - length));
+		return block;
+	}
+	/**
+	 * Builds a BSPNode from the tables of nodes and walls of a binary file.
+	 * Nodes are numbered in preorder, the shared field number gives the current node.
+	 * @param table the content of the file as ints
+	 * @param nodes position of the table of nodes
+	 * @param walls position of the table of walls
+	 * @param nodeCount number of nodes in the table
+	 * @param wallCount number of walls in the table
+	 * @return a new BSPNode, fully initialized with all necessary data
+	 * @throws IOException if the tables are inconsistent
+	 */
+	private BSPNode readBSPNode(IntBuffer table, int nodes, int walls, int nodeCount, int wallCount) throws IOException {
+		final int mynumber = number ;
+		if (nodeCount <= mynumber)
+			throw new IOException("MazeFileReader: BSP tree needs more than " + nodeCount + " nodes");
+		final int base = nodes + MazeFileWriter.NODE_INTS*mynumber;
+		if (MazeFileWriter.LEAF == table.get(base)) {
+			final int first = table.get(base+1);
+			final int n = table.get(base+2);
+			if (first < 0 || n <= 0 || wallCount - n < first)
+				throw new IOException("MazeFileReader: walls of BSP node " + mynumber + " out of range");
+			ArrayList<Wall> slist = new ArrayList<Wall>(n) ;
+			for (int i = 0 ; i < n ; i++) {
+				final int w = walls + MazeFileWriter.WALL_INTS*(first+i);
+				int cc = 0 ; // use this as a dummy for the constructor, the correct color is explicitly set below
+				Wall wall = new Wall(table.get(w), table.get(w+1), table.get(w+2), table.get(w+3), table.get(w+4), cc);
+				wall.setColor(table.get(w+5));
+				final int flags = table.get(w+6);
+				wall.setPartition((flags & MazeFileWriter.PARTITION) != 0);
+				wall.setSeen((flags & MazeFileWriter.SEEN) != 0);
+				slist.add(wall);
+			}
+			return new BSPLeaf(slist) ;
+		}
+		// read left branch before right branch, increment index number for next node to visit
+		number++ ;
+		BSPNode l = readBSPNode(table, nodes, walls, nodeCount, wallCount) ;
+		number++ ;
+		BSPNode r = readBSPNode(table, nodes, walls, nodeCount, wallCount) ;
+		return new BSPBranch(table.get(base+1), table.get(base+2), table.get(base+3), table.get(base+4), l, r) ;
+	}
+
+	// shared index number for nodes in the tree of BSPNodes, used as an additional return value for recursive calls
+	// the sequence of values is increasing, when switching from a left branch to a right branch in a preorder treetraversal 
+	// we need to keep track of the node number 
+	int number ;
+	/**
+	 * Builds a BSPNode from the records that were parsed from file.
+	 * 
+	 * The method recursively explores the left and right branches and builds a complete tree.
+	 * Nodes are numbered in the same preorder as in BSPBranch.store.
+	 * @param nodes the records of all nodes, indexed by node number
+	 * @return a new BSPNode, fully initialized with all necessary data
+	 */
+	private BSPNode readBSPNode(List<NodeRecord> nodes) {
+		// note: xl, yl, xu, yu are not read as these values are recalculated in the BSPnode constructor
+		int mynumber = number ; // keep track of own node number, as that the shared attribute number gets manipulated in recursive method calls
+		NodeRecord node = (mynumber < nodes.size()) ? nodes.get(mynumber) : null;
+		if (null == node)
+			throw new IllegalStateException("MazeFileReader: no data for BSP node " + mynumber);
+		// laod data for leaf nodes and bsp branch nodes
+		if (node.leaf)
+		{
+			// BSBLeaf, load walls
+			// note xl, yl, xu and yu are computed from the walls within the leaf constructor
+			// so there is no need to store those
+			ArrayList<Wall> slist = new ArrayList<Wall>(node.numSeg) ;
+			for (int i = 0 ; i < node.numSeg ; i++)
+			{
+				slist.add(node.getWall(i)) ;
+			}
+			return new BSPLeaf(slist) ;
+		}
+		else
+		{
+			// read left branch before right branch, increment index number for next node to visit
+			number++ ;
+			BSPNode l = readBSPNode(nodes) ; // recursion updates index number for each element of the subtree
+			number++ ; // increment index number for next node to visit
+			BSPNode r = readBSPNode(nodes) ;
+			// other fields of BSBNode class need not be set, computed in constructor from branches
+			return new BSPBranch(node.x, node.y, node.dx, node.dy, l, r) ;
+		}
+	}
+
+	/**
+	 * Holds the values of a single BSP node as they are parsed from file.
+	 * Walls of a leaf are kept as rows of WALL_FIELDS integers, booleans as 0 or 1.
+	 */
+	private static final class NodeRecord {
+		// positions of wall values in a row
+		static final int DIST = 0, DX = 1, DY = 2, PARTITION = 3, SEEN = 4, X = 5, Y = 6, COLOR = 7;
+		static final int WALL_FIELDS = 8;
+
+		boolean leaf ;
+		int x, y, dx, dy ; // splitter of a branch
+		int numSeg ; // number of walls of a leaf
+		int[] walls = new int[0] ; // values of walls of a leaf, row i holds wall i
+
+		/**
+		 * Sets the number of walls of a leaf and makes room for their values.
+		 */
+		void setNumSeg(int n) {
+			numSeg = n;
+			if (walls.length < n*WALL_FIELDS)
+				walls = Arrays.copyOf(walls, n*WALL_FIELDS);
+		}
+		/**
+		 * Stores a value of wall i, makes room for the wall as needed.
+		 */
+		void setWallValue(int i, int field, int value) {
+			if (walls.length < (i+1)*WALL_FIELDS)
+				walls = Arrays.copyOf(walls, Math.max((i+1), 2*walls.length/WALL_FIELDS)*WALL_FIELDS);
+			walls[i*WALL_FIELDS+field] = value;
+		}
+		/**
+		 * Creates wall i from its stored values.
+		 */
+		Wall getWall(int i) {
+			if (walls.length < (i+1)*WALL_FIELDS)
+				throw new IllegalStateException("MazeFileReader: no data for wall " + i);
+			final int base = i*WALL_FIELDS;
+			int cc = 0 ; // use this as a dummy for the constructor, the correct color is explicitly set below
+			Wall result = new Wall(walls[base+X], walls[base+Y], walls[base+DX], walls[base+DY], walls[base+DIST], cc) ;
+			// set a few more attributes explicitly
+			result.setColor(walls[base+COLOR]);
+			result.setSeen(1 == walls[base+SEEN]);
+			result.setPartition(1 == walls[base+PARTITION]);
+			return result;
+		}
+	}
+
+	/**
+	 * Receives the elements of the file from the SAX parser.
+	 * Each child of the Maze element carries a single value and its name tells
+	 * where the value belongs, e.g. cell_12 or xSeg_5_3 for the x coordinate 
+	 * of wall 3 in BSP node 5. Unknown elements are ignored.
+	 */
+	private class MazeHandler extends DefaultHandler {
+		final List<NodeRecord> nodes = new ArrayList<>(); // records of BSP nodes by node number
+		private final StringBuilder text = new StringBuilder(); // content of the current element
+		private int depth ; // nesting level of the current element, the Maze element is at level 1
+		private boolean inMaze ; // true while inside a Maze element
+		private int[][] cellValues ; // read into a matrix first, the floorplan is created at the end
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			depth++;
+			if (1 == depth)
+				inMaze = "Maze".equals(qName);
+			text.setLength(0);
+		}
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			if (inMaze && 2 == depth)
+				text.append(ch, start, length);
+		}
+		@Override
+		public void endElement(String uri, String localName, String qName) throws SAXException {
+			if (inMaze && 2 == depth)
+				store(qName, text.toString().trim());
+			depth--;
+		}
+		@Override
+		public void endDocument() {
+			if (null != cellValues)
+				cells = new Floorplan(cellValues);
+		}
+
+		/**
+		 * Puts the value of a single element where it belongs.
+		 * @param name the name of the element
+		 * @param value the content of the element
+		 * @throws SAXException if a cell or distance comes before the size of the maze
+		 */
+		private void store(String name, String value) throws SAXException {
+			final int separator = name.indexOf('_');
+			final String key = (separator < 0) ? name : name.substring(0, separator);
+			switch (key) {
+			case "sizeX": width = Integer.parseInt(value); break;
+			case "sizeY": height = Integer.parseInt(value); break;
+			case "roomNum": rooms = Integer.parseInt(value); break;
+			case "partiters": expected_partiters = Integer.parseInt(value); break;
+			case "startX": startx = Integer.parseInt(value); break;
+			case "startY": starty = Integer.parseInt(value); break;
+			case "cell":
+				if (null == cellValues)
+					cellValues = allocateMatrix();
+				setMatrixValue(cellValues, parseIndex(name, separator+1, name.length()), Integer.parseInt(value));
+				break;
+			case "dists":
+				if (null == dists)
+					dists = allocateMatrix();
+				setMatrixValue(dists, parseIndex(name, separator+1, name.length()), Integer.parseInt(value));
+				break;
+			case "isleafBSPNode": getNode(name, separator).leaf = Boolean.parseBoolean(value); break;
+			case "xBSPNode": getNode(name, separator).x = Integer.parseInt(value); break;
+			case "yBSPNode": getNode(name, separator).y = Integer.parseInt(value); break;
+			case "dxBSPNode": getNode(name, separator).dx = Integer.parseInt(value); break;
+			case "dyBSPNode": getNode(name, separator).dy = Integer.parseInt(value); break;
+			case "numSeg": getNode(name, separator).setNumSeg(Integer.parseInt(value)); break;
+			case "distSeg": storeWallValue(name, separator, NodeRecord.DIST, Integer.parseInt(value)); break;
+			case "dxSeg": storeWallValue(name, separator, NodeRecord.DX, Integer.parseInt(value)); break;
+			case "dySeg": storeWallValue(name, separator, NodeRecord.DY, Integer.parseInt(value)); break;
+			case "xSeg": storeWallValue(name, separator, NodeRecord.X, Integer.parseInt(value)); break;
+			case "ySeg": storeWallValue(name, separator, NodeRecord.Y, Integer.parseInt(value)); break;
+			case "colSeg": storeWallValue(name, separator, NodeRecord.COLOR, Integer.parseInt(value)); break;
+			case "partitionSeg": storeWallValue(name, separator, NodeRecord.PARTITION, Boolean.parseBoolean(value) ? 1 : 0); break;
+			case "seenSeg": storeWallValue(name, separator, NodeRecord.SEEN, Boolean.parseBoolean(value) ? 1 : 0); break;
+			default: // e.g. xlBSPNode, the bounds of a node are recalculated from its children
+				break;
+			}
+		}
+		/**
+		 * Creates a width x height matrix, requires that the size of the maze is known.
+		 */
+		private int[][] allocateMatrix() throws SAXException {
+			if (width <= 0 || height <= 0)
+				throw new SAXException("MazeFileReader: size of maze must precede cells and distances");
+			return new int[width][height];
+		}
+		/**
+		 * Sets the entry with the given number, numbers run through the matrix column by column.
+		 */
+		private void setMatrixValue(int[][] matrix, int number, int value) {
+			matrix[number / height][number % height] = value;
+		}
+		/**
+		 * Gives the record for the node whose number follows the separator, creates it as needed.
+		 */
+		private NodeRecord getNode(String name, int separator) {
+			return getNode(parseIndex(name, separator+1, name.length()));
+		}
+		private NodeRecord getNode(int n) {
+			while (nodes.size() <= n)
+				nodes.add(null);
+			NodeRecord result = nodes.get(n);
+			if (null == result) {
+				result = new NodeRecord();
+				nodes.set(n, result);
+			}
+			return result;
+		}
+		/**
+		 * Stores a value of a wall, the name carries the node number and the wall index,
+		 * e.g. xSeg_5_3.
+		 */
+		private void storeWallValue(String name, int separator, int field, int value) {
+			final int second = name.indexOf('_', separator+1);
+			final int n = parseIndex(name, separator+1, second);
+			final int i = parseIndex(name, second+1, name.length());
+			getNode(n).setWallValue(i, field, value);
+		}
+	}
+	/**
+	 * Parses a non-negative decimal index in the given range of a string
+	 * without creating a substring.
+	 * @param s the string
+	 * @param from first position of the index
+	 * @param to position after the index
+	 * @return the index
+	 */
+	private static int parseIndex(String s, int from, int to) {
+		if (from >= to)
+			throw new NumberFormatException("Missing index in " + s);
+		int result = 0;
+		for (int k = from; k < to; k++) {
+			final int digit = s.charAt(k) - '0';
+			if (digit < 0 || 9 < digit)
+				throw new NumberFormatException("Invalid index in " + s);
+			result = 10*result + digit;
+		}
+		return result;
+	}
+	
+	/**
+	 * Obtains an integer value from the given element for the given string
+	 * @param string identifier
+	 * @param parent element that holds data
+	 * @return the int value for the given element
+	 */
+	public static int getElementIntValue(  String string, Element parent) {
+		return Integer
+				.parseInt(getElementStringValue( string, parent));
+	}
+
+	/**
+	 * Obtains an integer value from the given element for the given string
+	 * @param string identifier
+	 * @param parent element that holds data
+	 * @return the boolean value of the given element
+	 */
+	public static boolean getElementBooleanValue(  String string, Element parent ) {
+		return Boolean
+				.valueOf(getElementStringValue(string, parent))
+				.booleanValue();
+	}
+
+	/**
+	 * Obtains an integer value from the given element for the given string
+	 * @param string identifier
+	 * @param parent element that holds data
+	 * @return the string that represents the given information
+	 */
+	public static String getElementStringValue( String string, Element parent) {
+		NodeList nl = parent.getElementsByTagName(string);
+		if (nl.getLength() == 0) {
+			return "";
+		}
+
+		Node n = nl.item(0).getFirstChild();
+		if (n == null) {
+			return "";
+		}
+
+		return n.getNodeValue();
+	}
+
+	/////////////////////////////////// internal methods used in testing /////////////////////////////////////////
+	// TODO: change these into equals and compare methods for the corresponding Maze and BSPNode classes
+	// TODO: create junit test class that is a subclass of MazeFileReader that takes this code and performs unit tests
+	/**
+	 * compares given data with maze data read from file
+	 * @param mazew is the width of the maze
+	 * @param mazeh is the height fo the maze
+	 * @param rooms2 is the number of rooms
+	 * @param expected_partiters2 is the expected number of partition iterations
+	 * @param root2 is the root node of the bsp tree
+	 * @param mazecells are the walls that have been seen
+	 * @param mazedists are the distances to the exit
+	 * @param px is the starting position, x coordinate
+	 * @param py is the starting position, y coordinate
+	 */
+	public void compare(int mazew, int mazeh, int rooms2,
+			int expected_partiters2, BSPNode root2, Floorplan mazecells,
+			int[][] mazedists, int px, int py) {
+		if (mazew != this.width)
+			System.out.println("MazeFileReader.compare: width mismatch");
+		if (mazeh != this.height)
+			System.out.println("MazeFileReader.compare: height mismatch");
+		if (rooms2 != this.rooms)
+			System.out.println("MazeFileReader.compare: rooms mismatch");
+		if (expected_partiters2 != this.expected_partiters)
+			System.out.println("MazeFileReader.compare: expected partiters mismatch");
+		if (px != this.startx)
+			System.out.println("MazeFileReader.compare: start x mismatch");
+		if (py != this.starty)
+			System.out.println("MazeFileReader.compare: start y mismatch");
+		compareCells(mazecells) ;
+		compareDistances(mazedists) ;
+		System.out.println("Start comparing BSP nodes") ;
+		compareBSPNodes(root, root2) ;
+		
+	}
+
+	/**
+	 * Compares two bsp trees
+	 * @param root the root node of the first bsp tree
+	 * @param root2 the root node of the second bsp tree
+	 */
+	private static void compareBSPNodes(BSPNode root, BSPNode root2) {
+		// compare BSPNode fields
+		if (root.isIsleaf() != root2.isIsleaf()) 
+			System.out.println("MazeFileReader.compareBSPNodes:isleaf mismatch");
+		if (root.getLowerBoundX() != root2.getLowerBoundX()) 
+			System.out.println("MazeFileReader.compareBSPNodes:xl mismatch");
+		if (root.getUpperBoundX() != root2.getUpperBoundX()) 
+			System.out.println("MazeFileReader.compareBSPNodes:xu mismatch");
+		if (root.getLowerBoundY() != root2.getLowerBoundY()) 
+			System.out.println("MazeFileReader.compareBSPNodes:yl mismatch");
+		if (root.getUpperBoundY() != root2.getUpperBoundY()) 
+			System.out.println("MazeFileReader.compareBSPNodes:yu mismatch");
+		// if Leaf nodes compare seqment lists
+		//System.out.println("Start recursion for comparing BSP nodes") ;
+		if (BSPLeaf.class == root.getClass())
+		{
+			if (BSPLeaf.class != root2.getClass()) 
+				System.out.println("MazeFileReader.compareBSPNodes: type of nodes mismatch, root node has leaf, other node as branch");
+			compareWalls(((BSPLeaf)root).getAllWalls(),((BSPLeaf)root2).getAllWalls()) ;
+		}
+		// if Branch nodes compare attributes and branches
+		if (BSPBranch.class == root.getClass())
+		{
+			if (BSPBranch.class != root2.getClass()) 
+				System.out.println("MazeFileReader.compare: mismatch");
+
+			BSPBranch b = (BSPBranch)root ;
+			BSPBranch b2 = (BSPBranch)root2 ;
+			
+			if(b.getX() != b2.getX()) 
+				System.out.println("MazeFileReader.compare: mismatch");
+			if(b.getY() != b2.getY()) 
+				System.out.println("MazeFileReader.compare: mismatch");
+			if(b.getDx() != b2.getDx()) 
+				System.out.println("MazeFileReader.compare: mismatch");
+			if(b.getDy() != b2.getDy()) 
+				System.out.println("MazeFileReader.compare: mismatch");
+			compareBSPNodes(b.getLeftBranch(), b2.getLeftBranch()) ;
+			compareBSPNodes(b.getRightBranch(), b2.getRightBranch()) ;
+		}
+
+	}
+
+	private static void compareWalls(List<Wall> list, List<Wall> list2) {
+		int n = list.size() ;
+		if (n != list2.size()) 
+			System.out.println("MazeFileReader.compare walls: length mismatch, " + n + " vs " + list2.size());
+		Wall s ;
+		//Seg s2 ;
+		for (int i = 0 ; i < n ; i++)
+		{
+			s = list.get(i) ;
+			if (!s.equals(list2.get(i))) {
+				assert false : "MazeFileReader.compare walls do not mismatch" ;
+				// if assert not enabled during execution, at least print a waring
+				System.out.println("MazeFileReader.compare walls do not match"); 
+			}
+		}
+
+	}
+	private void compareDistances(int[][] mazedists) {
+		int[][] dists2 = mazedists ;
+		for (int i = 0 ; i < width ; i++)
+		{
+			for (int j = 0 ; j < height ; j++)
+			{
+				if (dists[i][j] != dists2[i][j]) 
+					System.out.println("MazeFileReader.compare distances: mismatch");
+			}
+		}
+		
+	}
+
+	private void compareCells(Floorplan mazecells) {
+		if (!cells.equals(mazecells))
+			System.out.println("MazeFileReader.compare cells: mismatch");
+	}
+
+}
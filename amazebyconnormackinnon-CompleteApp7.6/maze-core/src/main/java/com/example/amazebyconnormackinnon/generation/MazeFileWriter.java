@@ -0,0 +1,595 @@
+/**
+ * 
+ */
+package com.example.amazebyconnormackinnon.generation;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+/**
+ * This class provides functionality to write a maze configuration to a file in an XML format.
+ * The class design is not object-oriented as methods for this particular function are all collected here and
+ * not distributed across classes that carry that information, e.g. BSPNode.
+ * All methods are static. 
+ * The XML format is a straightforward enumeration of elements and not particularly sophisticated. 
+ * 
+ * The binary format holds the same information in a fraction of the space
+ * and MazeFileReader loads it through a memory map. All values are big-endian ints
+ * unless noted otherwise:
+ * <pre>
+ * header: magic "MAZB", version, flags, width, height, rooms, partiters, startX, startY, number of nodes, number of walls
+ * cells:  width*height values row by row, 16 bits each if flag CELLS_16 is set, 32 bits otherwise,
+ *         padded to a multiple of 4 bytes
+ * dists:  width*height values column by column as in Distance
+ * nodes:  5 values per BSP node in preorder, 
+ *         a branch is 0, x, y, dx, dy, a leaf is 1, index of first wall, number of walls, 0, 0
+ * walls:  7 values per wall in the order of the leaves: x, y, dx, dy, distance, color, 
+ *         flags with bit 0 for partition and bit 1 for seen
+ * </pre>
+ * Version 2 can encode cells and distances with MatrixCodec, header flag DELTA 
+ * or DEFLATED tells which. Each of the two sections is then the number of bytes
+ * followed by the encoded bytes, padded to a multiple of 4 bytes. Nodes and walls are unchanged,
+ * so they are still read in place. A file with raw cells and distances is written as version 1.
+ * A reader that finds a version it does not know rejects the file.
+ *
+ */
+public class MazeFileWriter {
+	/**
+	 * First four bytes of a binary maze file, "MAZB" in ASCII.
+	 */
+	static final int BINARY_MAGIC = 0x4D415A42;
+	/**
+	 * Latest version of the binary format, storeBinary writes version 1 
+	 * unless cells and distances are encoded.
+	 */
+	static final int BINARY_VERSION = 2;
+	/**
+	 * Flag in the header of the binary format: cell values are stored with 16 bits.
+	 */
+	static final int CELLS_16 = 1;
+	/**
+	 * Flags in the header of the binary format: cells and distances are encoded 
+	 * as varints of differences, with the deflate stage for DEFLATED.
+	 */
+	static final int DELTA = 2, DEFLATED = 4;
+	/**
+	 * Representations of cells and distances in the binary format.
+	 * Raw values can be copied straight from the memory map, 
+	 * Delta takes about a third of the space and Deflated about a sixth.
+	 */
+	public enum Encoding {Raw, Delta, Deflated};
+	/**
+	 * Number of ints in the header of the binary format, including the magic number.
+	 */
+	static final int BINARY_HEADER_INTS = 11;
+	/**
+	 * Number of ints for a BSP node and for a wall in the binary format.
+	 */
+	static final int NODE_INTS = 5, WALL_INTS = 7;
+	// kinds of nodes and flags of walls in the binary format
+	static final int BRANCH = 0, LEAF = 1;
+	static final int PARTITION = 1, SEEN = 2;
+
+	/**
+	 * Write maze content to a file.
+	 * The XML is written as a stream while the floorplan, the distances and
+	 * the tree of BSP nodes are traversed, no document is built in memory.
+	 * The output is the same as for a document built with storeMaze and written
+	 * by the default Transformer of the JVM.
+	 * @param filename gives the file name to store the data in
+	 * @param width is the width of the maze
+	 * @param height is the height of the maze
+	 * @param rooms is the number of rooms
+	 * @param expected_partiters is the expected number of partition iterations
+	 * @param root is the root node of the bsp tree
+	 * @param cells is the floor plan for this maze
+	 * @param dists is the distances to the exit
+	 * @param startX is the x coordinate of the starting position
+	 * @param startY is the y coordinate of the starting position
+	 */
+	public static void store(String filename, int width, int height, int rooms, 
+			int expected_partiters, BSPNode root, Floorplan cells, 
+			int[][] dists, int startX, int startY)
+	{
+		try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(filename), StandardCharsets.UTF_8), 1 << 16)) {
+			writeMaze(width, height, rooms, expected_partiters, root, cells, dists, startX, startY, new ElementWriter(out));
+		} catch (IOException ioe) {
+			ioe.printStackTrace();
+		}
+	}
+	/**
+	 * Writes the given objects as XML in the order of storeMaze.
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param rooms the number of rooms
+	 * @param expected_partiters the expected number of partition iterations
+	 * @param root the root node of the bsp tree
+	 * @param cells the floorplan
+	 * @param dists the distances to the exit position
+	 * @param startX the x coordinate of the starting position
+	 * @param startY the y coordinate of the starting position
+	 * @param xml the writer for elements
+	 * @throws IOException if the output can not be written
+	 */
+	private static void writeMaze(int width, int height, int rooms,
+			int expected_partiters, BSPNode root, Floorplan cells, int[][] dists,
+			int startX, int startY, ElementWriter xml) throws IOException {
+		xml.startDocument("Maze");
+		// store fields of Maze class
+		xml.element("sizeX", width);
+		xml.element("sizeY", height);
+		xml.element("roomNum", rooms);
+		xml.element("partiters", expected_partiters);
+		// cells
+		int number = 0 ;
+		for ( int x = 0; x != width; x++) {
+			for ( int y = 0; y != height; y++) {
+				xml.element("cell_", number, cells.getValueOfCell(x, y));
+				number++;
+			}
+		}
+		// distances
+		number = 0 ;
+		for ( int x = 0; x != width; x++) {
+			for ( int y = 0; y != height; y++) {
+				xml.element("dists_", number, dists[x][y]);
+				number++;
+			}
+		}
+		// start position
+		xml.element("startX", startX);
+		xml.element("startY", startY);
+		// BSPnodes
+		if (null != root)
+		{
+			writeNode(root, xml, 0);
+		}
+		else
+		{
+			System.out.println("MazeBuilderWriter.store: root node of BSP tree is null");
+		}
+		xml.endDocument("Maze");
+	}
+	/**
+	 * Writes a BSP node with the same elements and numbering as BSPNode.store,
+	 * BSPBranch.store and BSPLeaf.store.
+	 * @param node the node to write
+	 * @param xml the writer for elements
+	 * @param number is an index number for this node in the XML format
+	 * @return the highest used index number
+	 * @throws IOException if the output can not be written
+	 */
+	private static int writeNode(BSPNode node, ElementWriter xml, int number) throws IOException {
+		xml.element("xlBSPNode_", number, node.getLowerBoundX());
+		xml.element("ylBSPNode_", number, node.getLowerBoundY());
+		xml.element("xuBSPNode_", number, node.getUpperBoundX());
+		xml.element("yuBSPNode_", number, node.getUpperBoundY());
+		xml.element("isleafBSPNode_", number, node.isIsleaf());
+		if (node.isIsleaf()) {
+			final List<Wall> walls = ((BSPLeaf) node).getAllWalls();
+			xml.element("numSeg_", number, walls.size());
+			int i = 0 ;
+			for (Wall wall : walls) {
+				xml.element("distSeg_", number, i, wall.getDistance());
+				xml.element("dxSeg_", number, i, wall.getExtensionX());
+				xml.element("dySeg_", number, i, wall.getExtensionY());
+				xml.element("partitionSeg_", number, i, wall.isPartition());
+				xml.element("seenSeg_", number, i, wall.isSeen());
+				xml.element("xSeg_", number, i, wall.getStartPositionX());
+				xml.element("ySeg_", number, i, wall.getStartPositionY());
+				xml.element("colSeg_", number, i, wall.getColor());
+				i++ ;
+			}
+			return number ;
+		}
+		final BSPBranch branch = (BSPBranch) node;
+		xml.element("xBSPNode_", number, branch.getX());
+		xml.element("yBSPNode_", number, branch.getY());
+		xml.element("dxBSPNode_", number, branch.getDx());
+		xml.element("dyBSPNode_", number, branch.getDy());
+		// left branch first, it determines the numbers for the right branch
+		number++ ;
+		if (null == branch.getLeftBranch())
+			xml.element("xlBSPNode_", number, Integer.MIN_VALUE); // as in BSPBranch.store, likely dead code
+		else
+			number = writeNode(branch.getLeftBranch(), xml, number);
+		number++ ;
+		if (null == branch.getRightBranch())
+			xml.element("xlBSPNode_", number, Integer.MAX_VALUE);
+		else
+			number = writeNode(branch.getRightBranch(), xml, number);
+		return number ;
+	}
+	/**
+	 * Writes XML elements that carry a single value to a character stream.
+	 * Names of elements are put together from a prefix and index numbers 
+	 * and numbers are converted into digits as they are written,
+	 * so no strings are built per element and memory stays constant.
+	 * Values are numbers and booleans, they need no escaping.
+	 */
+	private static final class ElementWriter {
+		private static final int NONE = -1; // index that is not part of the name
+		private final Writer out;
+		private final char[] digits = new char[11]; // enough for Integer.MIN_VALUE
+
+		ElementWriter(Writer out) {
+			this.out = out;
+		}
+		void startDocument(String root) throws IOException {
+			out.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?><");
+			out.write(root);
+			out.write('>');
+		}
+		void endDocument(String root) throws IOException {
+			out.write("</");
+			out.write(root);
+			out.write('>');
+		}
+		/**
+		 * Writes an element with the given name.
+		 */
+		void element(String name, int value) throws IOException {
+			start(name, NONE, NONE);
+			writeInt(value);
+			end(name, NONE, NONE);
+		}
+		/**
+		 * Writes an element named prefix+number.
+		 */
+		void element(String prefix, int number, int value) throws IOException {
+			start(prefix, number, NONE);
+			writeInt(value);
+			end(prefix, number, NONE);
+		}
+		void element(String prefix, int number, boolean value) throws IOException {
+			start(prefix, number, NONE);
+			out.write(value ? "true" : "false");
+			end(prefix, number, NONE);
+		}
+		/**
+		 * Writes an element named prefix+number_i.
+		 */
+		void element(String prefix, int number, int i, int value) throws IOException {
+			start(prefix, number, i);
+			writeInt(value);
+			end(prefix, number, i);
+		}
+		void element(String prefix, int number, int i, boolean value) throws IOException {
+			start(prefix, number, i);
+			out.write(value ? "true" : "false");
+			end(prefix, number, i);
+		}
+		private void start(String prefix, int number, int i) throws IOException {
+			out.write('<');
+			writeName(prefix, number, i);
+			out.write('>');
+		}
+		private void end(String prefix, int number, int i) throws IOException {
+			out.write("</");
+			writeName(prefix, number, i);
+			out.write('>');
+		}
+		private void writeName(String prefix, int number, int i) throws IOException {
+			out.write(prefix);
+			if (NONE == number)
+				return;
+			writeInt(number);
+			if (NONE != i) {
+				out.write('_');
+				writeInt(i);
+			}
+		}
+		/**
+		 * Writes the decimal digits of the given value, same as Integer.toString.
+		 */
+		private void writeInt(int value) throws IOException {
+			if (Integer.MIN_VALUE == value) {
+				out.write("-2147483648");
+				return;
+			}
+			if (value < 0) {
+				out.write('-');
+				value = -value;
+			}
+			int pos = digits.length;
+			do {
+				digits[--pos] = (char) ('0' + value % 10);
+				value /= 10;
+			} while (0 != value);
+			out.write(digits, pos, digits.length - pos);
+		}
+	}
+	/**
+	 * Write maze content to a file in the binary format, see the description of this class.
+	 * The tree of BSP nodes is written as a flat table of nodes and a flat table of walls.
+	 * @param filename gives the file name to store the data in
+	 * @param width is the width of the maze
+	 * @param height is the height of the maze
+	 * @param rooms is the number of rooms
+	 * @param expected_partiters is the expected number of partition iterations
+	 * @param root is the root node of the bsp tree, can not be null
+	 * @param cells is the floor plan for this maze
+	 * @param dists is the distances to the exit
+	 * @param startX is the x coordinate of the starting position
+	 * @param startY is the y coordinate of the starting position
+	 * @throws IOException if the file can not be written
+	 */
+	public static void storeBinary(String filename, int width, int height, int rooms, 
+			int expected_partiters, BSPNode root, Floorplan cells, 
+			int[][] dists, int startX, int startY) throws IOException
+	{
+		storeBinary(filename, width, height, rooms, expected_partiters, root, cells, dists, startX, startY, Encoding.Raw);
+	}
+	/**
+	 * Write maze content to a file in the binary format with the given encoding 
+	 * of cells and distances, see the description of this class.
+	 * @param filename gives the file name to store the data in
+	 * @param width is the width of the maze
+	 * @param height is the height of the maze
+	 * @param rooms is the number of rooms
+	 * @param expected_partiters is the expected number of partition iterations
+	 * @param root is the root node of the bsp tree, can not be null
+	 * @param cells is the floor plan for this maze
+	 * @param dists is the distances to the exit
+	 * @param startX is the x coordinate of the starting position
+	 * @param startY is the y coordinate of the starting position
+	 * @param encoding is the representation of cells and distances
+	 * @throws IOException if the file can not be written
+	 */
+	public static void storeBinary(String filename, int width, int height, int rooms, 
+			int expected_partiters, BSPNode root, Floorplan cells, 
+			int[][] dists, int startX, int startY, Encoding encoding) throws IOException
+	{
+		if (null == root)
+			throw new IllegalArgumentException("MazeFileWriter.storeBinary: root node of BSP tree is null");
+		// cell values fit into 16 bits unless the floorplan carries unexpected bits
+		final int[] row = new int[width];
+		int bits = 0;
+		for (int y = 0; y != height; y++) {
+			cells.getRow(y, row);
+			for (int x = 0; x != width; x++)
+				bits |= row[x];
+		}
+		final boolean cells16 = (bits & ~0xFFFF) == 0;
+		final int[] counts = new int[2]; // nodes, walls
+		countNodes(root, counts);
+		final int flags = (cells16 ? CELLS_16 : 0) 
+				| (Encoding.Delta == encoding ? DELTA : 0) | (Encoding.Deflated == encoding ? DEFLATED : 0);
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename), 1 << 16))) {
+			// header
+			out.writeInt(BINARY_MAGIC);
+			out.writeInt(Encoding.Raw == encoding ? 1 : BINARY_VERSION);
+			out.writeInt(flags);
+			out.writeInt(width);
+			out.writeInt(height);
+			out.writeInt(rooms);
+			out.writeInt(expected_partiters);
+			out.writeInt(startX);
+			out.writeInt(startY);
+			out.writeInt(counts[0]);
+			out.writeInt(counts[1]);
+			if (Encoding.Raw != encoding) {
+				final boolean deflate = Encoding.Deflated == encoding;
+				writeBlock(out, MatrixCodec.encodeCells(cells, width, height, deflate));
+				writeBlock(out, MatrixCodec.encodeDistances(dists, width, height, deflate));
+				writeNodes(out, root, 0);
+				writeWalls(out, root);
+				return;
+			}
+			// cells, row by row as in the floorplan
+			for (int y = 0; y != height; y++) {
+				cells.getRow(y, row);
+				for (int x = 0; x != width; x++) {
+					if (cells16)
+						out.writeShort(row[x]);
+					else
+						out.writeInt(row[x]);
+				}
+			}
+			if (cells16 && 1 == (width*height) % 2)
+				out.writeShort(0); // padding, the following sections are aligned to ints
+			// distances, column by column
+			for (int x = 0; x != width; x++) {
+				for (int y = 0; y != height; y++)
+					out.writeInt(dists[x][y]);
+			}
+			// BSP nodes in preorder, then their walls
+			writeNodes(out, root, 0);
+			writeWalls(out, root);
+		}
+	}
+	/**
+	 * Writes the number of bytes of a block, the block and padding up to a multiple of 4 bytes.
+	 * @param out the stream to write to
+	 * @param block the bytes to write
+	 * @throws IOException if the stream can not be written
+	 */
+	private static void writeBlock(DataOutputStream out, byte[] block) throws IOException {
+		out.writeInt(block.length);
+		out.write(block);
+		for (int i = block.length; i % 4 != 0; i++)
+			out.writeByte(0);
+	}
+	/**
+	 * Counts nodes and walls of a BSP tree.
+	 * @param node the root of the (sub)tree
+	 * @param counts receives the number of nodes at index 0 and of walls at index 1
+	 */
+	private static void countNodes(BSPNode node, int[] counts) {
+		counts[0]++;
+		if (node.isIsleaf()) {
+			counts[1] += ((BSPLeaf) node).getAllWalls().size();
+		}
+		else {
+			countNodes(((BSPBranch) node).getLeftBranch(), counts);
+			countNodes(((BSPBranch) node).getRightBranch(), counts);
+		}
+	}
+	/**
+	 * Writes the table of nodes in preorder.
+	 * @param out the stream to write to
+	 * @param node the root of the (sub)tree
+	 * @param firstWall index of the first wall of the subtree in the table of walls
+	 * @return index of the first wall after the subtree
+	 * @throws IOException if the stream can not be written
+	 */
+	private static int writeNodes(DataOutputStream out, BSPNode node, int firstWall) throws IOException {
+		if (node.isIsleaf()) {
+			final int n = ((BSPLeaf) node).getAllWalls().size();
+			out.writeInt(LEAF);
+			out.writeInt(firstWall);
+			out.writeInt(n);
+			out.writeInt(0);
+			out.writeInt(0);
+			return firstWall + n;
+		}
+		final BSPBranch branch = (BSPBranch) node;
+		out.writeInt(BRANCH);
+		out.writeInt(branch.getX());
+		out.writeInt(branch.getY());
+		out.writeInt(branch.getDx());
+		out.writeInt(branch.getDy());
+		firstWall = writeNodes(out, branch.getLeftBranch(), firstWall);
+		return writeNodes(out, branch.getRightBranch(), firstWall);
+	}
+	/**
+	 * Writes the table of walls, leaf by leaf in preorder.
+	 * @param out the stream to write to
+	 * @param node the root of the (sub)tree
+	 * @throws IOException if the stream can not be written
+	 */
+	private static void writeWalls(DataOutputStream out, BSPNode node) throws IOException {
+		if (!node.isIsleaf()) {
+			writeWalls(out, ((BSPBranch) node).getLeftBranch());
+			writeWalls(out, ((BSPBranch) node).getRightBranch());
+			return;
+		}
+		final List<Wall> walls = ((BSPLeaf) node).getAllWalls();
+		for (Wall wall : walls) {
+			out.writeInt(wall.getStartPositionX());
+			out.writeInt(wall.getStartPositionY());
+			out.writeInt(wall.getExtensionX());
+			out.writeInt(wall.getExtensionY());
+			out.writeInt(wall.getDistance());
+			out.writeInt(wall.getColor());
+			out.writeInt((wall.isPartition() ? PARTITION : 0) | (wall.isSeen() ? SEEN : 0));
+		}
+	}
+	/**
+	 * Converts a maze file in the XML format into the binary format.
+	 * @param xmlFilename the file written by store
+	 * @param binaryFilename the file to write
+	 * @throws IOException if the XML file can not be read or the binary file can not be written
+	 */
+	public static void convertToBinary(String xmlFilename, String binaryFilename) throws IOException {
+		convertToBinary(xmlFilename, binaryFilename, Encoding.Raw);
+	}
+	/**
+	 * Converts a maze file in the XML format into the binary format with the given encoding.
+	 * @param xmlFilename the file written by store
+	 * @param binaryFilename the file to write
+	 * @param encoding the representation of cells and distances in the binary file
+	 * @throws IOException if the XML file can not be read or the binary file can not be written
+	 */
+	public static void convertToBinary(String xmlFilename, String binaryFilename, Encoding encoding) throws IOException {
+		final MazeFileReader reader = MazeFileReader.read(xmlFilename);
+		if (null == reader.getRootNode())
+			throw new IOException("MazeFileWriter.convertToBinary: can not read maze from " + xmlFilename);
+		storeBinary(binaryFilename, reader.getWidth(), reader.getHeight(), reader.getRooms(), 
+				reader.getExpectedPartiters(), reader.getRootNode(), reader.getCells(), 
+				reader.getDistances(), reader.getStartX(), reader.getStartY(), encoding);
+	}
+	/**
+	 * Store given objects in the given document.
+	 * The document has the same elements that store writes as a stream.
+	 * @param width the width of the maze
+	 * @param height the height of the maze
+	 * @param rooms the number of rooms
+	 * @param expected_partiters the expected number of partition iterations
+	 * @param root the root node of the bsp tree
+	 * @param cells the floorplan
+	 * @param dists the distances to the exit position
+	 * @param startX the x coordinate of the starting position
+	 * @param startY the y coordinate of the starting position
+	 * @param doc the document to append the information to
+	 */
+	static void storeMaze(int width, int height, int rooms,
+			int expected_partiters, BSPNode root, Floorplan cells, int[][] dists,
+			int startX, int startY, Document doc) {
+		Element mazeXML = doc.createElement("Maze");
+		doc.appendChild(mazeXML);
+		
+		// store fields of Maze class
+		MazeFileWriter.appendChild(doc, mazeXML, "sizeX", width) ;
+		MazeFileWriter.appendChild(doc, mazeXML, "sizeY", height) ;
+		MazeFileWriter.appendChild(doc, mazeXML, "roomNum", rooms) ;                 // TODO: check, unclear if this is truly necessary
+		MazeFileWriter.appendChild(doc, mazeXML, "partiters", expected_partiters) ;  // TODO: check, unclear if this is truly necessary
+		// cells
+		int number = 0 ;		
+		for ( int x = 0; x != width; x++) {
+			for ( int y = 0; y != height; y++) {
+				MazeFileWriter.appendChild(doc, mazeXML, "cell"+ "_" + Integer.toString(number), cells.getValueOfCell(x, y)) ;
+				number++;
+			}
+		}
+		// distances
+		number = 0 ;		
+		for ( int x = 0; x != width; x++) {
+			for ( int y = 0; y != height; y++) {
+				MazeFileWriter.appendChild(doc, mazeXML, "dists"+ "_" + Integer.toString(number), dists[x][y]) ;
+				number++;
+			}
+		}
+		// start position
+		MazeFileWriter.appendChild(doc, mazeXML, "startX", startX) ;
+		MazeFileWriter.appendChild(doc, mazeXML, "startY", startY) ;
+		// BSPnodes
+		if (null != root)
+		{
+			//Store the content of a BSPNode including data of branches and leaves as special cases.
+			root.store(doc, mazeXML, 0);
+		}
+		else
+		{
+			System.out.println("MazeBuilderWriter.store: root node of BSP tree is null");
+		}
+		
+	}
+	
+	/**
+	 * Append an new element to mazeXML that carries the given name has a child node with the given value.
+	 * @param doc document to add data to
+	 * @param mazeXML element to add data to
+	 * @param name specifies the XML element to write to
+	 * @param value is the content for the XML element
+	 */
+	public static void appendChild(Document doc, Element mazeXML, String name, int value)
+	{
+		Element e = doc.createElement(name);
+		e.appendChild(doc.createTextNode(Integer.toString(value)) );
+		mazeXML.appendChild(e);
+	}
+	/**
+	 * Append an new element to mazeXML that carries the given name has a child node with the given value.
+	 * @param doc document to add data to
+	 * @param mazeXML element to add data to
+	 * @param name specifies the XML element to write to
+	 * @param value is the content for the XML element
+	 */
+	public static void appendChild(Document doc, Element mazeXML, String name, boolean value)
+	{
+		Element e = doc.createElement(name);
+		e.appendChild(doc.createTextNode(Boolean.toString(value)) );
+		mazeXML.appendChild(e);
+	}
+}
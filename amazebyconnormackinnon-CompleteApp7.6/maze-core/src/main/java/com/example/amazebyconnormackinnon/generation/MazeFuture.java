@@ -0,0 +1,139 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Logger;
+
+import androidx.annotation.RequiresApi;
+
+/**
+ * The result of an order that is placed with
+ * {@link MazeFactory#orderAsync(Order) orderAsync}.
+ * The future completes with the maze once it is delivered,
+ * cancelling it interrupts the builder thread.
+ * Progress is published to subscribed listeners.
+ *
+ * The factory works on a forwarding order that passes every call on
+ * to the original order, so the original order still receives
+ * its progress updates and the delivered maze.
+ * CompletableFuture requires API level 24.
+ */
+@RequiresApi(24)
+public class MazeFuture extends CompletableFuture<Maze> {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MazeFuture.class.getName());
+
+	private final MazeFactory factory ; // factory that works on the order
+	private final FutureOrder order ; // order as seen by the factory
+	private final CopyOnWriteArrayList<ProgressListener> listeners = new CopyOnWriteArrayList<>();
+	private volatile int progress ; // last published progress value
+
+	/**
+	 * Constructor
+	 * @param factory the factory that works on the order
+	 * @param order the order of the client, receives all callbacks
+	 */
+	MazeFuture(MazeFactory factory, Order order) {
+		this.factory = factory ;
+		this.order = new FutureOrder(order) ;
+	}
+	/**
+	 * Gives the order that the factory works on.
+	 * @return the forwarding order
+	 */
+	Order getFactoryOrder() {
+		return order ;
+	}
+	/**
+	 * Gives the order that was placed by the client.
+	 * @return the original order
+	 */
+	public Order getOrder() {
+		return order.getClient() ;
+	}
+	/**
+	 * Gives the progress published so far.
+	 * @return the current progress, {@literal 0 <= value <= 100}
+	 */
+	public int getProgress() {
+		return progress ;
+	}
+	/**
+	 * Subscribes a listener to progress updates.
+	 * The listener receives the current progress right away.
+	 * @param listener the listener to notify, can not be null
+	 */
+	public synchronized void subscribe(ProgressListener listener) {
+		listeners.add(listener);
+		listener.onProgress(progress);
+	}
+	/**
+	 * Unsubscribes a listener from progress updates.
+	 * @param listener a listener that was subscribed before
+	 */
+	public void unsubscribe(ProgressListener listener) {
+		listeners.remove(listener);
+	}
+	/**
+	 * Cancels the order.
+	 * A queued order is dropped, an order in progress
+	 * is stopped by interrupting its builder thread.
+	 * @param mayInterruptIfRunning ignored, the builder is always interrupted
+	 * @return true if this future is cancelled now
+	 */
+	@Override
+	public boolean cancel(boolean mayInterruptIfRunning) {
+		final boolean cancelled = super.cancel(mayInterruptIfRunning);
+		if (cancelled)
+			factory.cancelAsync(order);
+		return cancelled ;
+	}
+	/**
+	 * Publishes a progress value to all listeners.
+	 * @param percentage of job completion
+	 */
+	private synchronized void publish(int percentage) {
+		if (percentage <= progress)
+			return;
+		progress = percentage ;
+		for (ProgressListener listener : listeners)
+			listener.onProgress(percentage);
+	}
+
+	/**
+	 * The order that the factory works on, it forwards all
+	 * calls to the order of the client and completes the future.
+	 */
+	final class FutureOrder extends ForwardingOrder {
+		FutureOrder(Order client) {
+			super(client);
+		}
+		@Override
+		public void deliver(Maze mazeConfig) {
+			super.deliver(mazeConfig);
+			complete(mazeConfig);
+		}
+		@Override
+		public void updateProgress(int percentage) {
+			super.updateProgress(percentage);
+			publish(percentage);
+		}
+		/**
+		 * Completes the future when the builder returns without a maze.
+		 * @param failure the exception that stopped the builder, null if it returned normally
+		 */
+		void builderFinished(Throwable failure) {
+			if (null != failure) {
+				LOGGER.severe("Builder failed with an exception: " + failure) ;
+				completeExceptionally(failure);
+			}
+			else if (!isDone()) {
+				// builder caught an interrupt before delivery
+				completeExceptionally(new CancellationException("Maze generation was interrupted"));
+			}
+		}
+	}
+}
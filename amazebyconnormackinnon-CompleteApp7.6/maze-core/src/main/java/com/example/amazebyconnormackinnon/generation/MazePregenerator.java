@@ -0,0 +1,177 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.logging.Logger;
+
+/**
+ * This class builds a maze speculatively before it is ordered.
+ * While the user still picks the parameters of a maze, the UI calls
+ * pregenerate with an order for the current selection and the seed
+ * it will use. The maze is built on a thread with minimum priority,
+ * which also keeps the BSP tree out of the shared fork/join pool till the build is claimed.
+ * When the actual order arrives, claim hands over the speculative build:
+ * the order receives the progress made so far and the maze, either right
+ * away if it is complete or later from the build that is still running.
+ *
+ * Each speculation runs on a MazeFactory of its own in single thread mode,
+ * claim returns that factory such that the caller can wait for or cancel
+ * the build as if it had placed the order itself.
+ * All methods are thread safe.
+ */
+public class MazePregenerator {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MazePregenerator.class.getName());
+
+	private final MazeCache cache ; // cache for the factories, null if not used
+	private MazeFactory factory ; // factory of the current speculation, null if there is none
+	private SpeculativeOrder speculation ; // order of the current speculation, null if there is none
+	private volatile TelemetryListener telemetryListener ; // listener for the factories, null if not used
+
+	/**
+	 * Constructor
+	 * @param cache the cache that delivered mazes are put into, null for no cache
+	 */
+	public MazePregenerator(MazeCache cache) {
+		this.cache = cache ;
+	}
+
+	/**
+	 * Sets the listener for generation telemetry of speculative builds.
+	 * It applies to speculations that start after the call.
+	 * @param listener the listener to notify, null to not collect telemetry
+	 */
+	public void setTelemetryListener(TelemetryListener listener) {
+		telemetryListener = listener ;
+	}
+
+	/**
+	 * Starts to build the maze for the given order in the background.
+	 * A running speculation for other parameters is cancelled,
+	 * one for the same parameters continues.
+	 * The given order only provides the parameters, it is not called back.
+	 * @param order specifies the maze that is likely to be ordered next
+	 */
+	public synchronized void pregenerate(Order order) {
+		if (null != speculation && speculation.matches(order))
+			return;
+		cancel();
+		final MazeFactory speculativeFactory = new MazeFactory();
+		speculativeFactory.setCache(cache);
+		speculativeFactory.setTelemetryListener(telemetryListener);
+		speculativeFactory.setThreadPriority(Thread.MIN_PRIORITY);
+		final SpeculativeOrder speculativeOrder = new SpeculativeOrder(order);
+		if (!speculativeFactory.order(speculativeOrder))
+			return;
+		LOGGER.fine("Started speculative build for skill level " + order.getSkillLevel() + " and seed " + order.getSeed());
+		factory = speculativeFactory;
+		speculation = speculativeOrder;
+	}
+	/**
+	 * Hands over the speculative build if it matches the given order.
+	 * The order receives the current progress at once and the maze
+	 * once it is delivered, the build continues with normal priority.
+	 * A speculation for other parameters is cancelled.
+	 * @param order the order placed by the user
+	 * @return the factory that builds the maze for the order, null if the order needs to be placed
+	 */
+	public synchronized MazeFactory claim(Order order) {
+		if (null == speculation || !speculation.matches(order)) {
+			cancel();
+			return null;
+		}
+		LOGGER.fine("Handing over speculative build at " + speculation.progress + " percent");
+		final MazeFactory result = factory;
+		result.setThreadPriority(Thread.NORM_PRIORITY);
+		speculation.handOver(order);
+		factory = null;
+		speculation = null;
+		return result;
+	}
+	/**
+	 * Cancels the current speculation if there is one.
+	 */
+	public synchronized void cancel() {
+		if (null == factory)
+			return;
+		factory.cancel();
+		factory = null;
+		speculation = null;
+	}
+
+	/**
+	 * The order of a speculative build. It keeps progress and maze
+	 * until an order of the user takes over and then forwards both to it.
+	 */
+	private static final class SpeculativeOrder implements Order {
+		private final int skillLevel;
+		private final Builder builder;
+		private final boolean perfect;
+		private final int seed;
+		private int progress ; // highest reported progress, guarded by this
+		private Maze maze ; // delivered maze, guarded by this
+		private Order target ; // order of the user after the hand over, guarded by this
+
+		SpeculativeOrder(Order order) {
+			skillLevel = order.getSkillLevel();
+			builder = order.getBuilder();
+			perfect = order.isPerfect();
+			seed = order.getSeed();
+		}
+		/**
+		 * Tells if the given order asks for the same maze.
+		 * @param order an order
+		 * @return true if all parameters match, false otherwise
+		 */
+		boolean matches(Order order) {
+			return skillLevel == order.getSkillLevel() && builder == order.getBuilder()
+					&& perfect == order.isPerfect() && seed == order.getSeed();
+		}
+		/**
+		 * Forwards the state of the build to the given order
+		 * and all further callbacks as well.
+		 * @param order the order that takes over
+		 */
+		synchronized void handOver(Order order) {
+			target = order;
+			target.updateProgress(progress);
+			if (null != maze)
+				target.deliver(maze);
+		}
+		@Override
+		public int getSkillLevel() {
+			return skillLevel;
+		}
+		@Override
+		public Builder getBuilder() {
+			return builder;
+		}
+		@Override
+		public boolean isPerfect() {
+			return perfect;
+		}
+		@Override
+		public int getSeed() {
+			return seed;
+		}
+		@Override
+		public synchronized void deliver(Maze mazeConfig) {
+			maze = mazeConfig;
+			if (null != target)
+				target.deliver(mazeConfig);
+		}
+		/**
+		 * Keeps and forwards the progress if it is higher than before.
+		 * Threads of the BSP construction can report out of order,
+		 * the progress handed over must not move backwards.
+		 */
+		@Override
+		public synchronized void updateProgress(int percentage) {
+			if (percentage <= progress)
+				return;
+			progress = percentage;
+			if (null != target)
+				target.updateProgress(percentage);
+		}
+	}
+}
@@ -0,0 +1,203 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * This class records a maze by the parameters of its order instead of its content.
+ * A seed results in the same maze for the same skill level, builder algorithm
+ * and perfect flag, so these four values are enough to generate the maze again.
+ * The record adds the content hash of the floorplan such that a maze that is
+ * generated again can be checked against the original one. A change of a builder
+ * algorithm or of the random number generator would otherwise go unnoticed
+ * and a different maze would be played under the same seed.
+ *
+ * A record takes a few bytes where a full maze file takes kilobytes to megabytes,
+ * about 30 KB at skill level 5 and 4 MB at skill level 15 even when deflated.
+ * If the maze generated from a record does not match its hash, the maze
+ * can only be restored from a full snapshot, which storeSnapshot writes
+ * in the binary format of MazeFileWriter. Snapshots are therefore optional,
+ * a caller keeps them under getSnapshotName and bounds their number with evictSnapshots.
+ *
+ * @see Floorplan#getContentHash()
+ */
+public final class MazeRecord {
+	/**
+	 * The logger is used to track execution and report issues.
+	 */
+	private static final Logger LOGGER = Logger.getLogger(MazeRecord.class.getName());
+	/**
+	 * Prefix and suffix of the file names of snapshots, see getSnapshotName.
+	 */
+	private static final String SNAPSHOT_PREFIX = "maze_";
+	private static final String SNAPSHOT_SUFFIX = ".bin";
+
+	private final int skillLevel;
+	private final Order.Builder builder;
+	private final boolean perfect;
+	private final int seed;
+	private final long hash; // content hash of the floorplan
+
+	/**
+	 * Constructor for a record with the given values.
+	 * @param skillLevel the size of the maze, {@literal 0 <= skillLevel <= 15}
+	 * @param builder the builder algorithm
+	 * @param perfect the maze is perfect or not
+	 * @param seed the seed for the random number generator
+	 * @param hash the content hash of the floorplan of the maze
+	 */
+	public MazeRecord(int skillLevel, Order.Builder builder, boolean perfect, int seed, long hash) {
+		this.skillLevel = skillLevel;
+		this.builder = builder;
+		this.perfect = perfect;
+		this.seed = seed;
+		this.hash = hash;
+	}
+	/**
+	 * Constructor for a record of a maze that has been delivered for the given order.
+	 * @param order the order that the maze was generated for
+	 * @param maze the maze delivered for the order
+	 */
+	public MazeRecord(Order order, Maze maze) {
+		this(order.getSkillLevel(), order.getBuilder(), order.isPerfect(), order.getSeed(),
+				maze.getFloorplan().getContentHash());
+	}
+
+	/////////////////// set of straightforward get methods //////////////
+	public int getSkillLevel() {
+		return skillLevel;
+	}
+	public Order.Builder getBuilder() {
+		return builder;
+	}
+	public boolean isPerfect() {
+		return perfect;
+	}
+	public int getSeed() {
+		return seed;
+	}
+	public long getHash() {
+		return hash;
+	}
+
+	/**
+	 * Provides a new order for the maze of this record.
+	 * @return an order with the parameters of this record
+	 */
+	public DefaultOrder toOrder() {
+		return new DefaultOrder(skillLevel, builder, perfect, seed);
+	}
+	/**
+	 * Provides the file name for a snapshot of the maze of this record.
+	 * The name contains all parameters of the order, the seed alone
+	 * does not identify a maze as the same seed is drawn for different skill levels and builders.
+	 * @return a file name without directory that is unique for the parameters of this record
+	 */
+	public String getSnapshotName() {
+		return SNAPSHOT_PREFIX + skillLevel + "_" + builder + "_" + (perfect ? "perfect" : "rooms")
+				+ "_" + seed + SNAPSHOT_SUFFIX;
+	}
+	/**
+	 * Checks if the given maze has the content that this record was made for.
+	 * @param maze a maze, e.g. generated for the order of this record
+	 * @return true if the floorplan of the maze matches the hash, false otherwise
+	 */
+	public boolean matches(Maze maze) {
+		return null != maze && null != maze.getFloorplan() && hash == maze.getFloorplan().getContentHash();
+	}
+	/**
+	 * Generates the maze of this record again and checks it against the hash.
+	 * If the generated maze does not match, the maze is loaded from the given snapshot.
+	 * The method blocks until the maze is generated.
+	 * @param snapshot name of a file written by storeSnapshot or MazeFileWriter with the full maze, may be null
+	 * @return the maze of this record, null if neither generation nor snapshot provide it
+	 */
+	public Maze restore(String snapshot) {
+		final DefaultOrder order = toOrder();
+		final MazeFactory factory = new MazeFactory();
+		if (factory.order(order)) {
+			factory.waitTillDelivered();
+			final Maze maze = order.getMaze();
+			if (matches(maze))
+				return maze;
+		}
+		LOGGER.warning("Generated maze does not match record for seed " + seed + ", using snapshot " + snapshot);
+		return loadSnapshot(snapshot);
+	}
+	/**
+	 * Loads the maze of this record from a full snapshot and checks it against the hash.
+	 * @param snapshot name of a file written by MazeFileWriter with the full maze, may be null
+	 * @return the maze from the snapshot, null if there is no such file or its maze does not match
+	 */
+	public Maze loadSnapshot(String snapshot) {
+		if (null == snapshot || !new File(snapshot).isFile())
+			return null;
+		final MazeFileReader reader;
+		try {
+			reader = MazeFileReader.read(snapshot);
+		} catch (IOException e) {
+			LOGGER.warning("Snapshot " + snapshot + " can not be read: " + e.getMessage());
+			return null;
+		}
+		final Maze maze = reader.getMazeConfiguration();
+		if (matches(maze))
+			return maze;
+		LOGGER.warning("Snapshot " + snapshot + " does not match record for seed " + seed);
+		return null;
+	}
+
+	/**
+	 * Writes a full snapshot of the given maze that loadSnapshot can restore it from.
+	 * The snapshot is in the deflated binary format of MazeFileWriter.
+	 * The number of rooms and partition iterations is not needed to restore a maze and written as 0.
+	 * @param snapshot name of the file to write
+	 * @param maze the maze of this record
+	 * @throws IOException if the file can not be written
+	 */
+	public void storeSnapshot(String snapshot, Maze maze) throws IOException {
+		if (!matches(maze))
+			throw new IllegalArgumentException("MazeRecord: maze does not match record for seed " + seed);
+		final int[] start = maze.getStartingPosition();
+		MazeFileWriter.storeBinary(snapshot, maze.getWidth(), maze.getHeight(), 0, 0, maze.getRootnode(),
+				maze.getFloorplan(), maze.getMazedists().getAllDistanceValues(), start[0], start[1],
+				MazeFileWriter.Encoding.Deflated);
+	}
+
+	/**
+	 * Deletes the least recently modified snapshots in the given directory until the
+	 * remaining ones take at most the given number of bytes.
+	 * Only files named like getSnapshotName are considered, other files in the directory are kept.
+	 * A caller that reuses a snapshot should update its modification time to keep it.
+	 * @param directory the directory with the snapshots
+	 * @param maxBytes the number of bytes the snapshots may take in total
+	 * @return the number of snapshots that were deleted
+	 */
+	public static int evictSnapshots(File directory, long maxBytes) {
+		final File[] snapshots = directory.listFiles((dir, name) ->
+				name.startsWith(SNAPSHOT_PREFIX) && name.endsWith(SNAPSHOT_SUFFIX));
+		if (null == snapshots)
+			return 0;
+		// most recent first, anything past the budget goes
+		Arrays.sort(snapshots, (a, b) -> Long.compare(b.lastModified(), a.lastModified()));
+		long bytes = 0;
+		int deleted = 0;
+		for (File snapshot : snapshots) {
+			bytes += snapshot.length();
+			if (bytes <= maxBytes)
+				continue;
+			if (snapshot.delete())
+				deleted++;
+			else
+				LOGGER.warning("Snapshot " + snapshot + " can not be deleted");
+		}
+		return deleted;
+	}
+
+	@Override
+	public String toString() {
+		return "MazeRecord[skill " + skillLevel + ", " + builder + ", perfect " + perfect
+				+ ", seed " + seed + ", hash " + Long.toHexString(hash) + "]";
+	}
+}
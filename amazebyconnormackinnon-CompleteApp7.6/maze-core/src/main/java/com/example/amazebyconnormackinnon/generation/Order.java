@@ -23,7 +23,7 @@ public interface Order {
 	Builder getBuilder() ;
 	/**
 	 * Lists all maze generation algorithms that are supported
-	 * by the maze factory (Eller needs to be implemented for P2)
+	 * by the maze factory
 	 *
 	 */
 	enum Builder {DFS, Prim, Kruskal, Eller, Boruvka};
@@ -0,0 +1,16 @@
+package com.example.amazebyconnormackinnon.generation;
+/**
+ * Receives progress updates for a maze that is ordered
+ * with {@link MazeFactory#orderAsync(Order) orderAsync}.
+ * Updates arrive on the builder thread in increasing order,
+ * the last one is 100 right before the maze is delivered.
+ */
+public interface ProgressListener {
+	/**
+	 * Called when the maze generation made progress.
+	 * Implementations should return quickly as the builder
+	 * thread waits for them.
+	 * @param percentage of job completion, {@literal 0 <= percentage <= 100}
+	 */
+	void onProgress(int percentage) ;
+}
@@ -0,0 +1,58 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.Random;
+
+/**
+ * This class implements a stream of pseudo random numbers that belongs to a single order.
+ * Each maze builder creates its own stream from the seed of its order, so builders
+ * that run at the same time do not share any state and a seed always results
+ * in the same maze.
+ * A stream with a given seed delivers the same numbers as SingleRandom after
+ * setSeed with that seed, so mazes for a seed remain the same as before.
+ * A stream can be split to obtain an independent stream for a parallel sub-task,
+ * the numbers of the new stream depend only on the state of this stream.
+ * java.util.SplittableRandom is not available before API level 24.
+ *
+ * A stream is meant to be used by one thread at a time.
+ */
+public final class RandomStream {
+	/**  internal random number generator. This should NOT be made accessible. */
+	private final Random generator;
+
+	/**
+	 * Constructor
+	 * @param seed is the seed value for the random number generator
+	 */
+	public RandomStream(final long seed) {
+		generator = new Random(seed);
+	}
+
+	/**
+	 * Delivers a random number.
+	 * @return random integer value
+	 */
+	public int nextInt() {
+		return generator.nextInt();
+	}
+	/**
+	 * Generate an integer random number in interval [lowerBound,upperBound]
+	 * @param lowerBound for the interval of values (inclusive)
+	 * @param upperBound for the interval of values (inclusive, WARNING: unusual)
+	 * @return random number within given range
+	 */
+	public int nextIntWithinInterval(final int lowerBound, final int upperBound) {
+		// nextInt(x) delivers uniformly distributed value in [0,x-1]
+		// say d = upperBound-lowerBound, then we want a result lowerBound + uniform(0,d) and uniform(0,d) is delivered by nextInt(d+1)
+		assert(lowerBound <= upperBound) : "parameter error, lowerbound " + lowerBound + "> upper bound" + upperBound ;
+		return lowerBound + generator.nextInt(upperBound - lowerBound + 1) ;
+	}
+	/**
+	 * Creates a new stream for a sub-task.
+	 * It advances this stream by one step and uses the result as the seed
+	 * for the new stream.
+	 * @return a new stream that is independent of this one
+	 */
+	public RandomStream split() {
+		return new RandomStream(generator.nextLong());
+	}
+}
@@ -8,6 +8,8 @@ import java.util.logging.Logger;
  * It is possible to set the seed of the generator by calling setSeed before the internal random number generator is initialized. 
  * This happens when getRandom is called for the first time. Any subsequent call to setSeed resets the seed of the existing generator.
  * Design implements Singleton pattern.
+ * The maze builders do not use this class, each order has a RandomStream of its own
+ * such that concurrent builders do not share a random number stream.
  * 
  * @author Kemper
  *
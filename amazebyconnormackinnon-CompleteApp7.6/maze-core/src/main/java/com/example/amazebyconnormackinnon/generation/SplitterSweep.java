@@ -0,0 +1,176 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Selects the splitter for a node of the BSP tree with exact grades.
+ *
+ * The grade of a candidate wall is the one of Wall.calculateGrade, i.e.
+ * the imbalance between walls to the left and to the right plus three
+ * times the number of walls it splits, but it is computed over all walls
+ * of the node instead of a sample of them.
+ * All walls are axis-aligned, so a vertical candidate at x coordinate c
+ * partitions the other walls as follows:
+ * a vertical wall is on the side of its x coordinate, or on the side given
+ * by its direction if it lies on c, a horizontal wall is split if it reaches
+ * across c and otherwise is on the side of its end that is not on c.
+ * Horizontal candidates are handled the same way for the y coordinate.
+ *
+ * The coordinates of walls and candidates are sorted once per node,
+ * then a single sweep over the candidates in ascending order
+ * advances a prefix count in each sorted array.
+ * This takes O(n log n) for a node with n walls, the sampling
+ * in calculateGrade takes O(50*50) and inspects only a fraction of the walls.
+ */
+final class SplitterSweep {
+	private final Wall[] walls; // walls of the node, index in list is used for ties
+	// vertical walls: x coordinate by direction, y range
+	private final int[] vxPos; // x of vertical walls with dy > 0
+	private final int[] vxNeg; // x of vertical walls with dy < 0
+	private final int[] vyMin; // lower y of vertical walls
+	private final int[] vyMax; // upper y of vertical walls
+	// horizontal walls: y coordinate by direction, x range
+	private final int[] hyPos; // y of horizontal walls with dx > 0
+	private final int[] hyNeg; // y of horizontal walls with dx < 0
+	private final int[] hxMin; // lower x of horizontal walls
+	private final int[] hxMax; // upper x of horizontal walls
+	// candidates that are not yet partitioned, coordinate << 32 | index
+	private final long[] vCandidates; // vertical walls by x
+	private final long[] hCandidates; // horizontal walls by y
+
+	private Wall result ; // best candidate so far
+	private int bestgrade = Integer.MAX_VALUE ; // grade of result
+	private int bestindex = Integer.MAX_VALUE ; // index of result
+
+	/**
+	 * Constructor sorts the coordinates of the given walls.
+	 * @param walls the walls of a node, all of them count for the grade
+	 */
+	private SplitterSweep(List<Wall> walls) {
+		this.walls = walls.toArray(new Wall[0]);
+		int nvPos = 0, nvNeg = 0, nhPos = 0, nhNeg = 0, nvCand = 0, nhCand = 0;
+		for (Wall wall : this.walls) {
+			if (0 == wall.getExtensionX()) {
+				if (wall.getExtensionY() > 0) nvPos++; else nvNeg++;
+				if (!wall.isPartition()) nvCand++;
+			}
+			else {
+				if (wall.getExtensionX() > 0) nhPos++; else nhNeg++;
+				if (!wall.isPartition()) nhCand++;
+			}
+		}
+		vxPos = new int[nvPos];
+		vxNeg = new int[nvNeg];
+		vyMin = new int[nvPos+nvNeg];
+		vyMax = new int[nvPos+nvNeg];
+		hyPos = new int[nhPos];
+		hyNeg = new int[nhNeg];
+		hxMin = new int[nhPos+nhNeg];
+		hxMax = new int[nhPos+nhNeg];
+		vCandidates = new long[nvCand];
+		hCandidates = new long[nhCand];
+		nvPos = nvNeg = nhPos = nhNeg = nvCand = nhCand = 0;
+		int nv = 0, nh = 0;
+		for (int i = 0; i < this.walls.length; i++) {
+			final Wall wall = this.walls[i];
+			final int sx = wall.getStartPositionX();
+			final int sy = wall.getStartPositionY();
+			final int ex = wall.getEndPositionX();
+			final int ey = wall.getEndPositionY();
+			if (0 == wall.getExtensionX()) {
+				if (wall.getExtensionY() > 0) vxPos[nvPos++] = sx; else vxNeg[nvNeg++] = sx;
+				vyMin[nv] = Math.min(sy, ey);
+				vyMax[nv++] = Math.max(sy, ey);
+				if (!wall.isPartition()) vCandidates[nvCand++] = ((long) sx << 32) | i;
+			}
+			else {
+				if (wall.getExtensionX() > 0) hyPos[nhPos++] = sy; else hyNeg[nhNeg++] = sy;
+				hxMin[nh] = Math.min(sx, ex);
+				hxMax[nh++] = Math.max(sx, ex);
+				if (!wall.isPartition()) hCandidates[nhCand++] = ((long) sy << 32) | i;
+			}
+		}
+		Arrays.sort(vxPos);
+		Arrays.sort(vxNeg);
+		Arrays.sort(vyMin);
+		Arrays.sort(vyMax);
+		Arrays.sort(hyPos);
+		Arrays.sort(hyNeg);
+		Arrays.sort(hxMin);
+		Arrays.sort(hxMax);
+		Arrays.sort(vCandidates);
+		Arrays.sort(hCandidates);
+	}
+
+	/**
+	 * Finds the wall with the minimum grade among all walls
+	 * that do not have their partition flag set.
+	 * Ties go to the wall that comes first in the list.
+	 * @param walls list of walls, remains unchanged
+	 * @return wall with smallest grade, null if all walls are partitioned
+	 */
+	static Wall findSplitter(List<Wall> walls) {
+		final SplitterSweep sweep = new SplitterSweep(walls);
+		// a vertical splitter going up has larger x on its right side
+		sweep.sweep(sweep.vCandidates, sweep.vxPos, sweep.vxNeg, sweep.hxMin, sweep.hxMax, true);
+		// a horizontal splitter going right has smaller y on its right side
+		sweep.sweep(sweep.hCandidates, sweep.hyPos, sweep.hyNeg, sweep.vyMin, sweep.vyMax, false);
+		return sweep.result;
+	}
+
+	/**
+	 * Grades all candidates of one orientation in ascending order of their coordinate
+	 * and keeps the best one in result.
+	 * Each count is kept as a position in a sorted array that only moves forward.
+	 * @param candidates sorted candidates, coordinate << 32 | index
+	 * @param samePos sorted coordinates of parallel walls with positive extension
+	 * @param sameNeg sorted coordinates of parallel walls with negative extension
+	 * @param crossMin sorted lower ends of perpendicular walls
+	 * @param crossMax sorted upper ends of perpendicular walls
+	 * @param positiveRightIsAbove tells if a candidate with positive extension
+	 * has walls with larger coordinates on its right side
+	 */
+	private void sweep(long[] candidates, int[] samePos, int[] sameNeg,
+			int[] crossMin, int[] crossMax, boolean positiveRightIsAbove) {
+		int posBelow = 0, posUpTo = 0; // counts of samePos entries < c, <= c
+		int negBelow = 0, negUpTo = 0; // counts of sameNeg entries < c, <= c
+		int minBelow = 0; // count of crossMin entries < c
+		int maxUpTo = 0; // count of crossMax entries <= c
+		for (long candidate : candidates) {
+			final int c = (int) (candidate >>> 32);
+			final int index = (int) candidate;
+			while (posBelow < samePos.length && samePos[posBelow] < c) posBelow++;
+			if (posUpTo < posBelow) posUpTo = posBelow;
+			while (posUpTo < samePos.length && samePos[posUpTo] <= c) posUpTo++;
+			while (negBelow < sameNeg.length && sameNeg[negBelow] < c) negBelow++;
+			if (negUpTo < negBelow) negUpTo = negBelow;
+			while (negUpTo < sameNeg.length && sameNeg[negUpTo] <= c) negUpTo++;
+			while (minBelow < crossMin.length && crossMin[minBelow] < c) minBelow++;
+			while (maxUpTo < crossMax.length && crossMax[maxUpTo] <= c) maxUpTo++;
+
+			final Wall splitter = walls[index];
+			final boolean positive = (splitter.getExtensionX() + splitter.getExtensionY()) > 0;
+			// walls that end at c count for the side of their other end
+			final int crossAbove = crossMin.length - minBelow;
+			final int crossBelow = maxUpTo;
+			final int splits = crossMin.length - crossAbove - crossBelow;
+			final int above = (samePos.length - posUpTo) + (sameNeg.length - negUpTo) + crossAbove;
+			final int below = posBelow + negBelow + crossBelow;
+			// parallel walls on c go right if they have the same direction as the splitter
+			final int posOn = posUpTo - posBelow;
+			final int negOn = negUpTo - negBelow;
+			final int sameOn = positive ? posOn : negOn;
+			final int oppositeOn = positive ? negOn : posOn;
+			final boolean rightIsAbove = (positive == positiveRightIsAbove);
+			final int rcount = (rightIsAbove ? above : below) + sameOn;
+			final int lcount = (rightIsAbove ? below : above) + oppositeOn;
+			final int grade = Math.abs(lcount-rcount) + splits * 3;
+			if (grade < bestgrade || (grade == bestgrade && index < bestindex)) {
+				bestgrade = grade;
+				bestindex = index;
+				result = splitter;
+			}
+		}
+	}
+}
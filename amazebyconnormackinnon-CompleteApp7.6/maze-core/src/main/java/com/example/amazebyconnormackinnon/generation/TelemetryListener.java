@@ -0,0 +1,15 @@
+package com.example.amazebyconnormackinnon.generation;
+/**
+ * A telemetry listener receives figures on how a maze was generated.
+ * It is called on the builder thread right before the maze is delivered
+ * to the order, so it should return quickly.
+ *
+ * @see MazeFactory#setTelemetryListener(TelemetryListener)
+ */
+public interface TelemetryListener {
+	/**
+	 * Receives the telemetry for a maze that is about to be delivered.
+	 * @param telemetry the figures for all phases of the generation
+	 */
+	void onTelemetry(GenerationTelemetry telemetry);
+}
@@ -0,0 +1,19 @@
+package com.example.amazebyconnormackinnon.generation;
+/**
+ * A thread meter reads the resources that the current thread consumed so far.
+ * The default meter uses the management interface of the JVM,
+ * platforms without it register a meter of their own with
+ * {@link GenerationTelemetry#setThreadMeter(ThreadMeter) GenerationTelemetry.setThreadMeter}.
+ */
+public interface ThreadMeter {
+	/**
+	 * Gives the CPU time of the current thread.
+	 * @return the CPU time in nanoseconds, -1 if it is not available
+	 */
+	long getCpuTimeNanos();
+	/**
+	 * Gives the number of bytes that the current thread allocated on the heap.
+	 * @return the allocated bytes, -1 if the number is not available
+	 */
+	long getAllocatedBytes();
+}
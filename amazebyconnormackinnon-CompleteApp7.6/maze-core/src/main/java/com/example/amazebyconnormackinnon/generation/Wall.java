@@ -6,9 +6,6 @@ import java.util.logging.Logger;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
-import com.example.amazebyconnormackinnon.gui.ColorTheme;
-import com.example.amazebyconnormackinnon.gui.MazeFileWriter;
-
 /**
  * A wall is a continuous sequence of wallboards in the maze.
  *
@@ -22,6 +19,14 @@ public class Wall {
 	 * The logger is used to track execution and report issues.
 	 */
 	private static final Logger LOGGER = Logger.getLogger(Wall.class.getName());
+	/**
+	 * The default color for walls, a light gray as in the default color theme.
+	 */
+	public static final int DEFAULT_COLOR = 0xFFCCCCCC;
+	/**
+	 * The scheme that decides the color of new walls.
+	 */
+	private static volatile WallColorScheme colorScheme = (distance, cc, extensionX) -> DEFAULT_COLOR;
 
 
     // The following fields are all read-only and set by constructor
@@ -31,24 +36,24 @@ public class Wall {
     // are scaled (multiplied) with a factor of map_unit
     /**
      * x coordinate of starting position of wall.
-     * Range: {@code 0 <= x <= width * Constants.MAP_UNIT}
+     * Range: {@code 0 <= x <= width * MazeConstants.MAP_UNIT}
      */
     private final int x;
     /**
      * y coordinate of starting position of wall.
-     * Range: {@code 0 <= y <= height  * Constants.MAP_UNIT}
+     * Range: {@code 0 <= y <= height  * MazeConstants.MAP_UNIT}
      */
     private final int y;
     /**
      * direction (sign) and length (absolute value)
      * of wall in x coordinate.
-     * Range: {@code 0 <= x+dx <= width * Constants.MAP_UNIT}
+     * Range: {@code 0 <= x+dx <= width * MazeConstants.MAP_UNIT}
      */
     private final int dx;
     /**
      *  direction (sign) and length  (absolute value)
      *  of wall in y coordinate.
-     *  Range: {@code 0 <= y+dy <= height * Constants.MAP_UNIT}
+     *  Range: {@code 0 <= y+dy <= height * MazeConstants.MAP_UNIT}
      */
     private final int dy;
     // Side condition: either dx != 0 and dy == 0 or vice versa
@@ -122,7 +127,7 @@ public class Wall {
         partition = false;
         seen = false;
         // determine color
-        setColor(ColorTheme.getWallColor(distance, cc, getExtensionX()));
+        setColor(colorScheme.getWallColor(distance, cc, getExtensionX()));
         // all fields initialized
     }
 
@@ -282,9 +287,9 @@ public class Wall {
      * of the maze and has an extension of 0. Method is used in BSPBuilder.
      *
      * @param width
-     *            width of maze * Constants.MAP_UNIT
+     *            width of maze * MazeConstants.MAP_UNIT
      * @param height
-     *            height of maze * Constants.MAP_UNIT
+     *            height of maze * MazeConstants.MAP_UNIT
      */
     public void updatePartitionIfBorderCase(final int width, final int height) {
         // case 1: left or right most column and vertical wall
@@ -332,7 +337,16 @@ public class Wall {
          */
     	col = color;
     }
-    
+
+    /**
+     * Sets the scheme that decides the color of walls created from now on.
+     * Without a scheme all walls have the default color.
+     * @param scheme the color scheme, null for the default color
+     */
+    public static void setColorScheme(final WallColorScheme scheme) {
+        colorScheme = (null != scheme) ? scheme : (distance, cc, extensionX) -> DEFAULT_COLOR;
+    }
+
     /**
      * @return the x
      */
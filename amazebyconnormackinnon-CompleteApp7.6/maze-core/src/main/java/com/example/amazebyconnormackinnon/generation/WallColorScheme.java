@@ -0,0 +1,18 @@
+package com.example.amazebyconnormackinnon.generation;
+/**
+ * A color scheme decides the color of a new wall.
+ * The generation does not depend on how colors are displayed,
+ * a client registers its scheme with
+ * {@link Wall#setColorScheme(WallColorScheme) Wall.setColorScheme}
+ * before it orders mazes.
+ */
+public interface WallColorScheme {
+	/**
+	 * Gives the color for a wall.
+	 * @param distance of the starting position of the wall to the exit of the maze
+	 * @param cc asks for a color change when a wall is split into two
+	 * @param extensionX direction and length of the wall in x coordinate
+	 * @return the color as an ARGB value
+	 */
+	int getWallColor(int distance, int cc, int extensionX);
+}
@@ -16,5 +16,16 @@
  * not just the input specification on what kind of maze is wanted but after deliver is
  * called also a reference to the resulting generated maze.
  * </p>
+ * <p>
+ * MazeFileWriter and MazeFileReader store a maze in an XML or a compact binary file and load it again,
+ * the reader recognizes the format of a file.
+ * A MazeRecord keeps only the parameters of the order and a hash of the floorplan,
+ * it generates the maze again and falls back to a stored file if the result differs.
+ * </p>
+ * <p>
+ * The package is plain Java and has no dependencies on Android or on the gui package,
+ * it forms the maze-core library that the app depends on. Sizes per skill level are
+ * in MazeConstants, clients that display walls in color register a WallColorScheme.
+ * </p>
  */
 package com.example.amazebyconnormackinnon.generation;
\ No newline at end of file
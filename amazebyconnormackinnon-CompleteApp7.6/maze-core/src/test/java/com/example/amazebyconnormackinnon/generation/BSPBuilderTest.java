@@ -0,0 +1,64 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * Tests that the BSP tree of a builder below normal priority
+ * is not built by the threads of the shared fork/join pool.
+ * Progress is reported by the threads that build leaves,
+ * so the threads that report progress show where the tree is built.
+ */
+public class BSPBuilderTest {
+	/**
+	 * An order that records the threads that report progress.
+	 */
+	private static final class ThreadRecordingOrder extends DefaultOrder {
+		final Set<Thread> threads = Collections.synchronizedSet(new HashSet<Thread>());
+
+		ThreadRecordingOrder() {
+			super(9, Order.Builder.DFS, false, 7);
+		}
+		@Override
+		public void updateProgress(int percentage) {
+			threads.add(Thread.currentThread());
+			super.updateProgress(percentage);
+		}
+	}
+
+	private static ThreadRecordingOrder build(int priority) {
+		final ThreadRecordingOrder order = new ThreadRecordingOrder();
+		final MazeFactory factory = new MazeFactory();
+		factory.setThreadPriority(priority);
+		assertTrue(factory.order(order));
+		factory.waitTillDelivered();
+		assertNotNull(order.getMaze());
+		return order;
+	}
+	private static boolean reportedFromPool(ThreadRecordingOrder order) {
+		synchronized (order.threads) {
+			for (Thread thread : order.threads) {
+				if (thread.getName().startsWith("ForkJoinPool"))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	@Test
+	public void lowPriorityBuildStaysOnItsThread() {
+		assertFalse(reportedFromPool(build(Thread.MIN_PRIORITY)));
+	}
+
+	@Test
+	public void normalPriorityBuildUsesPool() {
+		assertTrue(reportedFromPool(build(Thread.NORM_PRIORITY)));
+	}
+}
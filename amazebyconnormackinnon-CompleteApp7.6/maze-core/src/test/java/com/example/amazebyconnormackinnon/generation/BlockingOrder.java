@@ -0,0 +1,45 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An order that holds its builder at the first progress update
+ * till the test releases it, such that the order stays in progress.
+ * An interrupt releases the builder as well and keeps the interrupt
+ * for the next checkpoint of the builder.
+ */
+class BlockingOrder extends DefaultOrder {
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch released = new CountDownLatch(1);
+
+	BlockingOrder(int seed) {
+		super(0, Order.Builder.DFS, true, seed);
+	}
+	@Override
+	public void updateProgress(int percentage) {
+		if (0 < started.getCount()) {
+			started.countDown();
+			try {
+				released.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		super.updateProgress(percentage);
+	}
+	/**
+	 * Waits till a builder works on this order.
+	 * @throws InterruptedException if the test thread is interrupted
+	 */
+	void awaitStarted() throws InterruptedException {
+		if (!started.await(10, TimeUnit.SECONDS))
+			throw new AssertionError("Order was not started");
+	}
+	/**
+	 * Lets the builder continue.
+	 */
+	void release() {
+		released.countDown();
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+/**
+ * Tests that the compact store keeps 16 bit values and rejects larger ones
+ * instead of truncating them.
+ */
+public class CompactCellStoreTest {
+	@Test
+	public void keepsSixteenBitValues() {
+		final CompactCellStore store = new CompactCellStore(4);
+		store.set(0, 0xFFFF);
+		store.setBits(1, Floorplan.CW_IN_ROOM);
+		store.clearBits(0, Floorplan.CW_TOP);
+		assertEquals(0xFFFF & ~Floorplan.CW_TOP, store.get(0));
+		assertEquals(Floorplan.CW_IN_ROOM, store.get(1));
+	}
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsValueAbove16Bits() {
+		new CompactCellStore(4).set(2, 0x10000);
+	}
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeValue() {
+		new CompactCellStore(4).set(2, -1);
+	}
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsMaskAbove16Bits() {
+		new CompactCellStore(4).setBits(2, 1 << 20);
+	}
+	@Test(expected = IllegalArgumentException.class)
+	public void compactFloorplanRejectsRowAbove16Bits() {
+		final Floorplan floorplan = new Floorplan(3, 2, Floorplan.Storage.Compact);
+		floorplan.setRow(1, new int[] {1, 0x12345, 2});
+	}
+}
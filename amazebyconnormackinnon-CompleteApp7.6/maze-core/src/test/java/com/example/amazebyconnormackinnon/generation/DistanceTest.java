@@ -0,0 +1,55 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests that the breadth first search of Distance computes
+ * the same distances, exit and start position as the legacy engine.
+ */
+@RunWith(Parameterized.class)
+public class DistanceTest {
+	@Parameters(name = "{0} perfect={1} skill={2}")
+	public static Collection<Object[]> parameters() {
+		final List<Object[]> result = new ArrayList<>();
+		for (Order.Builder builder : Order.Builder.values()) {
+			for (boolean perfect : new boolean[] {true, false}) {
+				for (int skillLevel : new int[] {0, 3, 6, 9}) {
+					result.add(new Object[] {builder, perfect, skillLevel});
+				}
+			}
+		}
+		return result;
+	}
+
+	private final Order.Builder builder;
+	private final boolean perfect;
+	private final int skillLevel;
+
+	public DistanceTest(Order.Builder builder, boolean perfect, int skillLevel) {
+		this.builder = builder;
+		this.perfect = perfect;
+		this.skillLevel = skillLevel;
+	}
+
+	@Test
+	public void breadthFirstMatchesLegacy() throws InterruptedException {
+		final MazeBuilder maze = TestMazes.generated(skillLevel, builder, perfect, 42);
+		final Distance bfs = new Distance(maze.width, maze.height);
+		final Distance legacy = new Distance(maze.width, maze.height);
+		legacy.setEngine(Distance.Engine.Legacy);
+		assertArrayEquals("exit position", legacy.computeDistances(maze.floorplan), bfs.computeDistances(maze.floorplan));
+		assertArrayEquals("start position", legacy.getStartPosition(), bfs.getStartPosition());
+		for (int x = 0; x < maze.width; x++) {
+			assertArrayEquals("distances in column " + x, legacy.getAllDistanceValues()[x], bfs.getAllDistanceValues()[x]);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+/**
+ * Tests that the order receives increasing progress values
+ * while several threads report work at the same time,
+ * as the threads of the BSP construction do.
+ */
+public class GenerationProgressTest {
+	/**
+	 * An order that records all progress values it receives.
+	 */
+	private static final class RecordingOrder extends DefaultOrder {
+		final List<Integer> received = new ArrayList<>();
+
+		@Override
+		public synchronized void updateProgress(int percentage) {
+			received.add(percentage);
+		}
+		synchronized List<Integer> getReceived() {
+			return new ArrayList<>(received);
+		}
+	}
+
+	@Test
+	public void concurrentReportsArriveInIncreasingOrder() throws InterruptedException {
+		final int threads = 8;
+		final int reports = 20000;
+		for (int round = 0; round < 20; round++) {
+			final RecordingOrder order = new RecordingOrder();
+			final GenerationProgress progress = new GenerationProgress(order, false);
+			progress.beginPhase(GenerationProgress.Phase.BSP, (long) threads * reports);
+			final CountDownLatch start = new CountDownLatch(1);
+			final List<Thread> workers = new ArrayList<>();
+			for (int i = 0; i < threads; i++) {
+				final Thread worker = new Thread(() -> {
+					try {
+						start.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int j = 0; j < reports; j++)
+						progress.worked(1);
+				});
+				worker.start();
+				workers.add(worker);
+			}
+			start.countDown();
+			for (Thread worker : workers)
+				worker.join();
+			progress.endPhase(GenerationProgress.Phase.BSP);
+			progress.finish();
+			final List<Integer> received = order.getReceived();
+			for (int i = 1; i < received.size(); i++) {
+				assertTrue("progress went from " + received.get(i-1) + " to " + received.get(i),
+						received.get(i-1) < received.get(i));
+			}
+			assertEquals(100, (int) received.get(received.size() - 1));
+		}
+	}
+}
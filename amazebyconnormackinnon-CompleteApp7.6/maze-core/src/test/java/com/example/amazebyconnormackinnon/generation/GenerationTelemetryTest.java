@@ -0,0 +1,110 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests that the telemetry of the BSP phase includes the work
+ * of the fork/join pool threads and marks such a phase as pooled.
+ */
+public class GenerationTelemetryTest {
+	/**
+	 * A meter that reports no work for the builder thread and
+	 * 1000 units between two readings on a pool thread.
+	 */
+	private static final class PoolOnlyMeter implements ThreadMeter {
+		private final ThreadLocal<long[]> readings = new ThreadLocal<long[]>() {
+			@Override
+			protected long[] initialValue() {
+				return new long[1];
+			}
+		};
+		@Override
+		public long getCpuTimeNanos() {
+			return read();
+		}
+		@Override
+		public long getAllocatedBytes() {
+			return read();
+		}
+		private long read() {
+			if (!(Thread.currentThread() instanceof ForkJoinWorkerThread))
+				return 0;
+			return 500 * readings.get()[0]++;
+		}
+	}
+
+	@After
+	public void restoreMeter() {
+		GenerationTelemetry.setThreadMeter(null);
+	}
+
+	private static GenerationTelemetry generate(int priority) {
+		final AtomicReference<GenerationTelemetry> result = new AtomicReference<>();
+		final MazeFactory factory = new MazeFactory();
+		factory.setTelemetryListener(result::set);
+		factory.setThreadPriority(priority);
+		final DefaultOrder order = new DefaultOrder(9, Order.Builder.DFS, false, 7);
+		assertTrue(factory.order(order));
+		factory.waitTillDelivered();
+		assertNotNull(result.get());
+		return result.get();
+	}
+	private static GenerationTelemetry.Phase phase(GenerationTelemetry telemetry, GenerationProgress.Phase phase) {
+		for (GenerationTelemetry.Phase p : telemetry.getPhases()) {
+			if (p.getName().equals(phase.getLabel()))
+				return p;
+		}
+		throw new AssertionError("No telemetry for phase " + phase);
+	}
+
+	@Test
+	public void bspPhaseIncludesPoolThreads() {
+		GenerationTelemetry.setThreadMeter(new PoolOnlyMeter());
+		final GenerationTelemetry telemetry = generate(Thread.NORM_PRIORITY);
+		final GenerationTelemetry.Phase bsp = phase(telemetry, GenerationProgress.Phase.BSP);
+		assertTrue(bsp.isPooled());
+		assertTrue(bsp.getCpuTimeNanos() > 0);
+		assertTrue(bsp.getAllocatedBytes() > 0);
+		assertTrue(telemetry.toJson().contains("\"pooled\":true"));
+		for (GenerationTelemetry.Phase p : telemetry.getPhases()) {
+			if (p != bsp) {
+				assertFalse(p.isPooled());
+				assertEquals(0, p.getCpuTimeNanos());
+			}
+		}
+	}
+
+	@Test
+	public void phaseWithoutPoolIsNotPooled() {
+		final GenerationTelemetry telemetry = generate(Thread.MIN_PRIORITY);
+		assertFalse(phase(telemetry, GenerationProgress.Phase.BSP).isPooled());
+		assertFalse(telemetry.toJson().contains("\"pooled\":true"));
+	}
+
+	@Test
+	public void unavailableMeterGivesMinusOne() {
+		GenerationTelemetry.setThreadMeter(new ThreadMeter() {
+			@Override
+			public long getCpuTimeNanos() {
+				return -1;
+			}
+			@Override
+			public long getAllocatedBytes() {
+				return -1;
+			}
+		});
+		final GenerationTelemetry.Phase bsp = phase(generate(Thread.NORM_PRIORITY), GenerationProgress.Phase.BSP);
+		assertTrue(bsp.isPooled());
+		assertEquals(-1, bsp.getCpuTimeNanos());
+		assertEquals(-1, bsp.getAllocatedBytes());
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests that MatrixCodec decodes what it encodes, with and without the deflate stage,
+ * and that inconsistent data is rejected with an IOException.
+ */
+public class MatrixCodecTest {
+	private static final int WIDTH = 7;
+	private static final int HEIGHT = 5;
+
+	private static void assertCellsRoundTrip(Floorplan cells, int width, int height, boolean deflate) throws IOException {
+		final byte[] data = MatrixCodec.encodeCells(cells, width, height, deflate);
+		final Floorplan decoded = new Floorplan(width, height, cells.getStorage());
+		MatrixCodec.decodeCells(data, decoded, width, height, deflate);
+		assertEquals(cells, decoded);
+	}
+	private static void assertDistancesRoundTrip(int[][] dists, int width, int height, boolean deflate) throws IOException {
+		final byte[] data = MatrixCodec.encodeDistances(dists, width, height, deflate);
+		final int[][] decoded = new int[width][height];
+		MatrixCodec.decodeDistances(data, decoded, width, height, deflate);
+		for (int x = 0; x != width; x++)
+			assertArrayEquals("column " + x, dists[x], decoded[x]);
+	}
+	private static int[][] distances() {
+		return TestMazes.handcrafted(WIDTH, HEIGHT, Floorplan.Storage.Int, 0xFFFF, 3).getMazedists().getAllDistanceValues();
+	}
+
+	@Test
+	public void generatedMazeRoundTrip() throws IOException {
+		final Maze maze = TestMazes.delivered(5, Order.Builder.Eller, false, 13);
+		for (boolean deflate : new boolean[] {false, true}) {
+			assertCellsRoundTrip(maze.getFloorplan(), maze.getWidth(), maze.getHeight(), deflate);
+			assertDistancesRoundTrip(maze.getMazedists().getAllDistanceValues(), maze.getWidth(), maze.getHeight(), deflate);
+		}
+	}
+
+	@Test
+	public void cellsRoundTrip() throws IOException {
+		for (boolean deflate : new boolean[] {false, true}) {
+			assertCellsRoundTrip(TestMazes.handcrafted(WIDTH, HEIGHT, Floorplan.Storage.Compact, 0xFFFF, 1).getFloorplan(), 
+					WIDTH, HEIGHT, deflate);
+			assertCellsRoundTrip(TestMazes.handcrafted(WIDTH, HEIGHT, Floorplan.Storage.Int, -1, 2).getFloorplan(), 
+					WIDTH, HEIGHT, deflate);
+		}
+	}
+
+	@Test
+	public void extremeDistancesRoundTrip() throws IOException {
+		// differences between neighbors overflow an int and are negative
+		final int[][] dists = new int[WIDTH][HEIGHT];
+		for (int x = 0; x != WIDTH; x++) {
+			for (int y = 0; y != HEIGHT; y++)
+				dists[x][y] = ((x + y) % 2 == 0) ? Integer.MAX_VALUE : Integer.MIN_VALUE + x;
+		}
+		dists[3][2] = -1;
+		dists[4][0] = 0;
+		for (boolean deflate : new boolean[] {false, true}) {
+			assertDistancesRoundTrip(dists, WIDTH, HEIGHT, deflate);
+			assertDistancesRoundTrip(distances(), WIDTH, HEIGHT, deflate);
+		}
+	}
+
+	@Test
+	public void rejectsTruncatedBlock() {
+		for (boolean deflate : new boolean[] {false, true}) {
+			final byte[] data = MatrixCodec.encodeDistances(distances(), WIDTH, HEIGHT, deflate);
+			assertRejectsDistances(Arrays.copyOf(data, data.length - 1), deflate);
+			assertRejectsDistances(Arrays.copyOf(data, data.length / 2), deflate);
+		}
+	}
+
+	@Test
+	public void rejectsTrailingBytes() {
+		final byte[] data = MatrixCodec.encodeDistances(distances(), WIDTH, HEIGHT, false);
+		assertRejectsDistances(Arrays.copyOf(data, data.length + 1), false);
+	}
+
+	@Test
+	public void rejectsValueLongerThanFiveBytes() {
+		final byte[] data = new byte[WIDTH*HEIGHT*5];
+		Arrays.fill(data, (byte) 0x80);
+		assertRejectsDistances(data, false);
+	}
+
+	@Test
+	public void rejectsCorruptDeflateStream() {
+		final byte[] data = MatrixCodec.encodeDistances(distances(), WIDTH, HEIGHT, true);
+		// keep the varint with the raw length, the compressed bytes follow it
+		int header = 0;
+		while (data[header] < 0)
+			header++;
+		Arrays.fill(data, header + 1, data.length, (byte) 0xFF);
+		assertRejectsDistances(data, true);
+	}
+
+	@Test
+	public void rejectsImpossibleDeflatedLength() {
+		// raw length in front of the compressed bytes is less than a byte per value
+		final byte[] data = MatrixCodec.encodeDistances(distances(), WIDTH, HEIGHT, true);
+		data[0] = 1;
+		assertRejectsDistances(data, true);
+	}
+
+	@Test
+	public void compactFloorplanRejectsValueAbove16Bits() {
+		final Floorplan wide = TestMazes.handcrafted(WIDTH, HEIGHT, Floorplan.Storage.Int, 0xFFFF, 4).getFloorplan();
+		final int[] row = new int[WIDTH];
+		wide.getRow(2, row);
+		row[3] = 0x10000;
+		wide.setRow(2, row);
+		for (boolean deflate : new boolean[] {false, true}) {
+			final byte[] data = MatrixCodec.encodeCells(wide, WIDTH, HEIGHT, deflate);
+			try {
+				MatrixCodec.decodeCells(data, new Floorplan(WIDTH, HEIGHT, Floorplan.Storage.Compact), WIDTH, HEIGHT, deflate);
+			} catch (IOException e) {
+				continue;
+			}
+			throw new AssertionError("value above 16 bits accepted, deflate " + deflate);
+		}
+	}
+
+	private static void assertRejectsDistances(byte[] data, boolean deflate) {
+		try {
+			MatrixCodec.decodeDistances(data, new int[WIDTH][HEIGHT], WIDTH, HEIGHT, deflate);
+		} catch (IOException e) {
+			return;
+		}
+		throw new AssertionError("inconsistent data accepted, deflate " + deflate);
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests the pathways of all builder algorithms.
+ * Every cell must be reachable from the exit, and a perfect maze
+ * must be a spanning tree of the cells: a maze of n cells without loops
+ * that connects all cells has exactly n-1 wallboards removed.
+ */
+@RunWith(Parameterized.class)
+public class MazeBuilderTest {
+	@Parameters(name = "{0} perfect={1} skill={2}")
+	public static Collection<Object[]> parameters() {
+		final List<Object[]> result = new ArrayList<>();
+		for (Order.Builder builder : Order.Builder.values()) {
+			for (boolean perfect : new boolean[] {true, false}) {
+				for (int skillLevel : new int[] {0, 2, 5, 8, 11}) {
+					result.add(new Object[] {builder, perfect, skillLevel});
+				}
+			}
+		}
+		return result;
+	}
+
+	private final Order.Builder builder;
+	private final boolean perfect;
+	private final int skillLevel;
+
+	public MazeBuilderTest(Order.Builder builder, boolean perfect, int skillLevel) {
+		this.builder = builder;
+		this.perfect = perfect;
+		this.skillLevel = skillLevel;
+	}
+
+	@Test
+	public void allCellsAreReachable() throws InterruptedException {
+		for (int seed : new int[] {1, 13, 4711}) {
+			final MazeBuilder maze = TestMazes.generated(skillLevel, builder, perfect, seed);
+			for (int x = 0; x < maze.width; x++) {
+				for (int y = 0; y < maze.height; y++) {
+					assertNotEquals("seed " + seed + ": cell (" + x + "," + y + ") is not reachable",
+							Distance.INFINITY, maze.dists.getDistanceValue(x, y));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void perfectMazeIsSpanningTree() throws InterruptedException {
+		assumeTrue(perfect);
+		for (int seed : new int[] {1, 13, 4711}) {
+			final MazeBuilder maze = TestMazes.generated(skillLevel, builder, perfect, seed);
+			assertEquals("seed " + seed + ": removed wallboards", 
+					maze.width*maze.height - 1, countRemovedWallboards(maze.floorplan, maze.width, maze.height));
+		}
+	}
+
+	/**
+	 * Counts the wallboards between neighboring cells that are not present,
+	 * each wallboard is counted once from its cell on the left or on the top.
+	 */
+	private static int countRemovedWallboards(Floorplan floorplan, int width, int height) {
+		int count = 0;
+		for (int x = 0; x < width; x++) {
+			for (int y = 0; y < height; y++) {
+				if (x+1 < width && floorplan.hasNoWall(x, y, CardinalDirection.East))
+					count++;
+				if (y+1 < height && floorplan.hasNoWall(x, y, CardinalDirection.South))
+					count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,122 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Tests the size aware LRU eviction of MazeCache, the budget check
+ * for mazes that do not fit, replacing a maze for the same order
+ * and that walls are handed out as not seen.
+ */
+public class MazeCacheTest {
+	private static Order order(int seed) {
+		return new DefaultOrder(0, Order.Builder.DFS, true, seed);
+	}
+	private static Maze small(int seed) {
+		return TestMazes.handcrafted(4, 4, Floorplan.Storage.Int, 0xFFFF, seed);
+	}
+	private static Maze large(int seed) {
+		return TestMazes.handcrafted(20, 20, Floorplan.Storage.Int, 0xFFFF, seed);
+	}
+
+	@Test
+	public void evictsLeastRecentlyUsed() {
+		final long size = MazeCache.estimateSize(small(0));
+		final MazeCache cache = new MazeCache(3*size);
+		final Maze a = small(1), b = small(2), c = small(3), d = small(4);
+		cache.put(order(1), a);
+		cache.put(order(2), b);
+		cache.put(order(3), c);
+		assertSame(a, cache.get(order(1))); // b is least recently used now
+		cache.put(order(4), d);
+		assertEquals(3, cache.getCount());
+		assertEquals(3*size, cache.getSize());
+		assertNull(cache.get(order(2)));
+		assertSame(a, cache.get(order(1)));
+		assertSame(c, cache.get(order(3)));
+		assertSame(d, cache.get(order(4)));
+		assertEquals(4, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void evictsAsManyMazesAsNeededForLargeMaze() {
+		final long size = MazeCache.estimateSize(small(0));
+		final long largeSize = MazeCache.estimateSize(large(0));
+		assertTrue(largeSize > 2*size);
+		final MazeCache cache = new MazeCache(largeSize + size);
+		cache.put(order(1), small(1));
+		cache.put(order(2), small(2));
+		cache.put(order(3), small(3));
+		cache.put(order(4), large(4));
+		// the two least recently used mazes make room for the large one
+		assertEquals(2, cache.getCount());
+		assertEquals(largeSize + size, cache.getSize());
+		assertNull(cache.get(order(1)));
+		assertNull(cache.get(order(2)));
+		assertTrue(null != cache.get(order(3)));
+		assertTrue(null != cache.get(order(4)));
+	}
+
+	@Test
+	public void doesNotKeepMazeLargerThanBudget() {
+		final long size = MazeCache.estimateSize(small(0));
+		final MazeCache cache = new MazeCache(2*size);
+		cache.put(order(1), small(1));
+		cache.put(order(2), large(2));
+		assertEquals(1, cache.getCount());
+		assertEquals(size, cache.getSize());
+		assertNull(cache.get(order(2)));
+		// an oversized maze for a cached order drops the maze that was there
+		cache.put(order(1), large(3));
+		assertEquals(0, cache.getCount());
+		assertEquals(0, cache.getSize());
+		assertNull(cache.get(order(1)));
+	}
+
+	@Test
+	public void replacesMazeForSameOrder() {
+		final long size = MazeCache.estimateSize(small(0));
+		final long largeSize = MazeCache.estimateSize(large(0));
+		final MazeCache cache = new MazeCache(largeSize + size);
+		final Maze replacement = large(2);
+		cache.put(order(1), small(1));
+		cache.put(order(3), small(3));
+		cache.put(order(1), replacement);
+		assertEquals(2, cache.getCount());
+		assertEquals(largeSize + size, cache.getSize());
+		assertSame(replacement, cache.get(order(1)));
+		// equal parameters give the same maze for a different order object
+		assertSame(replacement, cache.get(new DefaultOrder(0, Order.Builder.DFS, true, 1)));
+		assertNull(cache.get(new DefaultOrder(0, Order.Builder.Prim, true, 1)));
+	}
+
+	@Test
+	public void getResetsSeenWalls() {
+		final MazeCache cache = new MazeCache(1L << 20);
+		final Maze maze = small(1);
+		cache.put(order(1), maze);
+		final BSPLeaf leaf = (BSPLeaf) ((BSPBranch) maze.getRootnode()).getLeftBranch();
+		for (Wall wall : leaf.getAllWalls())
+			wall.setSeen(true);
+		assertSame(maze, cache.get(order(1)));
+		for (Wall wall : leaf.getAllWalls())
+			assertFalse(wall.isSeen());
+	}
+
+	@Test
+	public void clearRemovesAllMazes() {
+		final MazeCache cache = new MazeCache(1L << 20);
+		cache.put(order(1), small(1));
+		cache.put(order(2), small(2));
+		cache.clear();
+		assertEquals(0, cache.getCount());
+		assertEquals(0, cache.getSize());
+		assertNull(cache.get(order(1)));
+	}
+}
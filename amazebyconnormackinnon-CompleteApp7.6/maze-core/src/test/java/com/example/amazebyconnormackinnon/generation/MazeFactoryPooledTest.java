@@ -0,0 +1,110 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the pooled mode of MazeFactory with a single worker thread
+ * and a queue for a single order, orders are held in progress with a BlockingOrder.
+ */
+public class MazeFactoryPooledTest {
+	private final MazeFactory factory = new MazeFactory(1, 1);
+
+	@After
+	public void shutdown() {
+		factory.shutdown();
+	}
+
+	@Test
+	public void deliveredOrderIsRemovedFromPending() {
+		final DefaultOrder order = new DefaultOrder(1, Order.Builder.Prim, false, 3);
+		assertTrue(factory.order(order));
+		factory.waitTillDelivered(order);
+		assertNotNull(order.getMaze());
+		assertTrue(factory.getPendingOrders().isEmpty());
+	}
+
+	@Test
+	public void refusesOrderWhileQueueIsFull() throws InterruptedException {
+		final BlockingOrder running = new BlockingOrder(1);
+		final DefaultOrder queued = new DefaultOrder(0, Order.Builder.DFS, true, 2);
+		final DefaultOrder refused = new DefaultOrder(0, Order.Builder.DFS, true, 3);
+		assertTrue(factory.order(running));
+		running.awaitStarted();
+		assertTrue(factory.order(queued));
+		assertFalse(factory.order(refused));
+		assertEquals(2, factory.getPendingOrders().size());
+		assertFalse(factory.getPendingOrders().contains(refused));
+		running.release();
+		factory.waitTillDelivered();
+		assertNotNull(running.getMaze());
+		assertNotNull(queued.getMaze());
+		assertNull(refused.getMaze());
+		assertTrue(factory.getPendingOrders().isEmpty());
+	}
+
+	@Test
+	public void refusesOrderThatIsAlreadyPending() throws InterruptedException {
+		final BlockingOrder running = new BlockingOrder(1);
+		assertTrue(factory.order(running));
+		running.awaitStarted();
+		assertFalse(factory.order(running));
+		running.release();
+		factory.waitTillDelivered(running);
+		assertNotNull(running.getMaze());
+	}
+
+	@Test
+	public void cancelDropsQueuedOrder() throws InterruptedException {
+		final BlockingOrder running = new BlockingOrder(1);
+		final DefaultOrder queued = new DefaultOrder(0, Order.Builder.DFS, true, 2);
+		assertTrue(factory.order(running));
+		running.awaitStarted();
+		assertTrue(factory.order(queued));
+		factory.cancel(queued);
+		assertEquals(Arrays.<Order>asList(running), factory.getPendingOrders());
+		running.release();
+		factory.waitTillDelivered(running);
+		assertNotNull(running.getMaze());
+		assertNull(queued.getMaze());
+		assertTrue(factory.getPendingOrders().isEmpty());
+	}
+
+	@Test
+	public void cancelInterruptsRunningOrder() throws InterruptedException {
+		final BlockingOrder running = new BlockingOrder(1);
+		assertTrue(factory.order(running));
+		running.awaitStarted();
+		factory.cancel(running);
+		factory.waitTillDelivered(running);
+		assertNull(running.getMaze());
+		assertTrue(factory.getPendingOrders().isEmpty());
+		// the worker thread is free for the next order
+		final DefaultOrder next = new DefaultOrder(0, Order.Builder.DFS, true, 2);
+		assertTrue(factory.order(next));
+		factory.waitTillDelivered(next);
+		assertNotNull(next.getMaze());
+	}
+
+	@Test
+	public void cancelAllOrders() throws InterruptedException {
+		final BlockingOrder running = new BlockingOrder(1);
+		final DefaultOrder queued = new DefaultOrder(0, Order.Builder.DFS, true, 2);
+		assertTrue(factory.order(running));
+		running.awaitStarted();
+		assertTrue(factory.order(queued));
+		factory.cancel();
+		factory.waitTillDelivered();
+		assertNull(running.getMaze());
+		assertNull(queued.getMaze());
+		assertTrue(factory.getPendingOrders().isEmpty());
+	}
+}
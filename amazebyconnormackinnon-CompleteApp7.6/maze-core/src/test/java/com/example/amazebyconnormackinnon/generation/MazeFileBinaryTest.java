@@ -0,0 +1,106 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameter;
+import org.junit.runners.Parameterized.Parameters;
+
+/**
+ * Tests that a maze written by MazeFileWriter.storeBinary is read back unchanged
+ * by MazeFileReader in each encoding and that damaged files are rejected.
+ * All mazes have an odd number of cells, such that 16 bit cells are followed by padding.
+ */
+@RunWith(Parameterized.class)
+public class MazeFileBinaryTest {
+	@Parameters(name = "{0}")
+	public static Collection<Object[]> parameters() {
+		final List<Object[]> result = new ArrayList<Object[]>();
+		for (MazeFileWriter.Encoding encoding : MazeFileWriter.Encoding.values())
+			result.add(new Object[] {encoding});
+		return result;
+	}
+
+	@Parameter(0)
+	public MazeFileWriter.Encoding encoding;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private String store(Maze maze) throws IOException {
+		final String filename = folder.newFile().getPath();
+		MazeFileWriter.storeBinary(filename, maze.getWidth(), maze.getHeight(), MazeFileReaderTest.ROOMS,
+				MazeFileReaderTest.PARTITERS, maze.getRootnode(), maze.getFloorplan(),
+				maze.getMazedists().getAllDistanceValues(),
+				maze.getStartingPosition()[0], maze.getStartingPosition()[1], encoding);
+		return filename;
+	}
+
+	@Test
+	public void generatedMazeRoundTrip() throws IOException {
+		final Maze maze = TestMazes.delivered(2, Order.Builder.DFS, false, 13); // 15 x 15 cells
+		final MazeFileReader reader = MazeFileReader.read(store(maze));
+		MazeFileReaderTest.assertSameMaze(maze, reader);
+		assertEquals(Floorplan.Storage.Int, reader.getCells().getStorage());
+	}
+
+	@Test
+	public void compactFloorplanRoundTrip() throws IOException {
+		final Maze maze = TestMazes.handcrafted(201, 201, Floorplan.Storage.Compact, 0xFFFF, 5);
+		final MazeFileReader reader = MazeFileReader.read(store(maze));
+		MazeFileReaderTest.assertSameMaze(maze, reader);
+		assertEquals(Floorplan.Storage.Compact, reader.getCells().getStorage());
+	}
+
+	@Test
+	public void intFloorplanRoundTrip() throws IOException {
+		final Maze maze = TestMazes.handcrafted(7, 5, Floorplan.Storage.Int, 0xFFFF, 6);
+		final MazeFileReader reader = MazeFileReader.read(store(maze));
+		MazeFileReaderTest.assertSameMaze(maze, reader);
+		assertEquals(Floorplan.Storage.Int, reader.getCells().getStorage());
+	}
+
+	@Test
+	public void wideCellsRoundTrip() throws IOException {
+		// values above 16 bits are written as ints
+		final Maze maze = TestMazes.handcrafted(7, 5, Floorplan.Storage.Int, 0xFFFFF, 7);
+		MazeFileReaderTest.assertSameMaze(maze, MazeFileReader.read(store(maze)));
+	}
+
+	@Test
+	public void rejectsTruncatedFile() throws IOException {
+		final String filename = store(TestMazes.handcrafted(7, 5, Floorplan.Storage.Int, 0xFFFF, 8));
+		try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+			for (long length = file.length() - 4; length >= 4L*MazeFileWriter.BINARY_HEADER_INTS; length -= 12) {
+				file.setLength(length);
+				try {
+					MazeFileReader.read(filename);
+					fail("file truncated to " + length + " bytes was accepted");
+				} catch (IOException e) {
+					// expected
+				}
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void rejectsUnknownVersion() throws IOException {
+		final String filename = store(TestMazes.handcrafted(7, 5, Floorplan.Storage.Int, 0xFFFF, 9));
+		try (RandomAccessFile file = new RandomAccessFile(filename, "rw")) {
+			file.seek(4); // version follows the magic number
+			file.writeInt(MazeFileWriter.BINARY_VERSION + 1);
+		}
+		MazeFileReader.read(filename);
+	}
+}
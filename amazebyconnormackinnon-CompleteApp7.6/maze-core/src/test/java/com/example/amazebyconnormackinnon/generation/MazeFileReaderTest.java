@@ -0,0 +1,74 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that a maze written by MazeFileWriter is read back unchanged
+ * and that inconsistent files are rejected.
+ */
+public class MazeFileReaderTest {
+	static final int ROOMS = 3;
+	static final int PARTITERS = 7;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	/**
+	 * Checks all fields of the reader against the maze that was stored.
+	 */
+	static void assertSameMaze(Maze maze, MazeFileReader reader) {
+		assertEquals(maze.getWidth(), reader.getWidth());
+		assertEquals(maze.getHeight(), reader.getHeight());
+		assertEquals(ROOMS, reader.getRooms());
+		assertEquals(PARTITERS, reader.getExpectedPartiters());
+		assertEquals(maze.getStartingPosition()[0], reader.getStartX());
+		assertEquals(maze.getStartingPosition()[1], reader.getStartY());
+		assertEquals(maze.getFloorplan(), reader.getCells());
+		final int[][] dists = maze.getMazedists().getAllDistanceValues();
+		for (int x = 0; x != maze.getWidth(); x++)
+			assertArrayEquals("column " + x, dists[x], reader.getDistances()[x]);
+		TestMazes.assertSameTree(maze.getRootnode(), reader.getRootNode());
+	}
+
+	@Test
+	public void xmlRoundTrip() throws IOException {
+		final Maze maze = TestMazes.delivered(3, Order.Builder.DFS, false, 13);
+		final String filename = folder.newFile("maze.xml").getPath();
+		MazeFileWriter.store(filename, maze.getWidth(), maze.getHeight(), ROOMS, PARTITERS, maze.getRootnode(),
+				maze.getFloorplan(), maze.getMazedists().getAllDistanceValues(),
+				maze.getStartingPosition()[0], maze.getStartingPosition()[1]);
+		assertSameMaze(maze, MazeFileReader.read(filename));
+	}
+
+	@Test(expected = IOException.class)
+	public void xmlRejectsCellsBeforeSize() throws IOException {
+		final File file = folder.newFile("cells-first.xml");
+		try (Writer out = new FileWriter(file)) {
+			out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Maze>"
+					+ "<cell_0>5</cell_0><sizeX>1</sizeX><sizeY>1</sizeY>"
+					+ "<dists_0>1</dists_0></Maze>\n");
+		}
+		MazeFileReader.read(file.getPath());
+	}
+
+	@Test
+	public void constructorLeavesCellsUnsetForCellsBeforeSize() throws IOException {
+		final File file = folder.newFile("cells-first.xml");
+		try (Writer out = new FileWriter(file)) {
+			out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<Maze>"
+					+ "<cell_0>5</cell_0><sizeX>1</sizeX><sizeY>1</sizeY></Maze>\n");
+		}
+		assertNull(new MazeFileReader(file.getPath()).getCells());
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.w3c.dom.Document;
+
+/**
+ * Tests that the XML that MazeFileWriter.store streams to a file is the same,
+ * byte by byte, as the document of storeMaze written by the default Transformer.
+ */
+public class MazeFileWriterTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private void assertSameXml(Maze maze) throws IOException, ParserConfigurationException, TransformerException {
+		final int[][] dists = maze.getMazedists().getAllDistanceValues();
+		final int[] start = maze.getStartingPosition();
+		final File streamed = folder.newFile("streamed.xml");
+		MazeFileWriter.store(streamed.getPath(), maze.getWidth(), maze.getHeight(), 3, 7,
+				maze.getRootnode(), maze.getFloorplan(), dists, start[0], start[1]);
+		final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		MazeFileWriter.storeMaze(maze.getWidth(), maze.getHeight(), 3, 7,
+				maze.getRootnode(), maze.getFloorplan(), dists, start[0], start[1], doc);
+		final File transformed = folder.newFile("transformed.xml");
+		TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(transformed));
+		assertArrayEquals(Files.readAllBytes(transformed.toPath()), Files.readAllBytes(streamed.toPath()));
+	}
+
+	@Test
+	public void handcraftedMazeMatchesDocument() throws Exception {
+		// the left leaf has walls with negative extensions and distances, distances include negative values
+		assertSameXml(TestMazes.handcrafted(5, 5, Floorplan.Storage.Int, 0xFFFF, 11));
+	}
+
+	@Test
+	public void generatedMazeMatchesDocument() throws Exception {
+		assertSameXml(TestMazes.delivered(1, Order.Builder.Prim, false, 4711));
+	}
+}
@@ -0,0 +1,166 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.Test;
+
+/**
+ * Tests how MazeFuture completes for a delivered, refused, cancelled
+ * and failed order, in single thread mode and in pooled mode.
+ */
+public class MazeFutureTest {
+	/**
+	 * An order that makes its builder fail at the first progress update.
+	 */
+	private static final class FailingOrder extends DefaultOrder {
+		FailingOrder() {
+			super(0, Order.Builder.DFS, true, 1);
+		}
+		@Override
+		public void updateProgress(int percentage) {
+			throw new IllegalStateException("Order fails on purpose");
+		}
+	}
+
+	private static void assertCancelled(MazeFuture future) throws InterruptedException, ExecutionException, TimeoutException {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Cancelled future delivered a maze");
+		} catch (CancellationException e) {
+			// expected
+		}
+		assertTrue(future.isCancelled());
+	}
+	private static Throwable failureOf(MazeFuture future) throws InterruptedException, TimeoutException {
+		try {
+			future.get(10, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+		throw new AssertionError("Future completed normally");
+	}
+
+	@Test
+	public void completesWithDeliveredMaze() throws Exception {
+		final DefaultOrder order = new DefaultOrder(1, Order.Builder.Kruskal, false, 5);
+		final MazeFuture future = new MazeFactory().orderAsync(order);
+		final Maze maze = future.get(10, TimeUnit.SECONDS);
+		assertSame(order.getMaze(), maze);
+		assertSame(maze, future.getNow(null));
+		assertEquals(100, future.getProgress());
+		assertSame(order, future.getOrder());
+	}
+
+	@Test
+	public void refusedOrderCompletesWithRejectedExecution() throws Exception {
+		final MazeFactory factory = new MazeFactory();
+		final BlockingOrder running = new BlockingOrder(1);
+		assertTrue(factory.order(running));
+		running.awaitStarted();
+		final MazeFuture refused = factory.orderAsync(new DefaultOrder(0, Order.Builder.DFS, true, 2));
+		assertTrue(failureOf(refused) instanceof RejectedExecutionException);
+		running.release();
+		factory.waitTillDelivered();
+	}
+
+	@Test
+	public void cancelStopsRunningOrder() throws Exception {
+		final MazeFactory factory = new MazeFactory();
+		final BlockingOrder order = new BlockingOrder(1);
+		final MazeFuture future = factory.orderAsync(order);
+		order.awaitStarted();
+		assertTrue(future.cancel(true));
+		assertCancelled(future);
+		factory.waitTillDelivered();
+		assertNull(order.getMaze());
+	}
+
+	@Test
+	public void cancelStopsRunningOrderInPooledMode() throws Exception {
+		final MazeFactory factory = new MazeFactory(1, 1);
+		try {
+			final BlockingOrder order = new BlockingOrder(1);
+			final MazeFuture future = factory.orderAsync(order);
+			order.awaitStarted();
+			assertTrue(future.cancel(true));
+			assertCancelled(future);
+			factory.waitTillDelivered();
+			assertNull(order.getMaze());
+			assertTrue(factory.getPendingOrders().isEmpty());
+		} finally {
+			factory.shutdown();
+		}
+	}
+
+	@Test
+	public void cancelDropsQueuedOrderInPooledMode() throws Exception {
+		final MazeFactory factory = new MazeFactory(1, 1);
+		try {
+			final BlockingOrder running = new BlockingOrder(1);
+			assertTrue(factory.order(running));
+			running.awaitStarted();
+			final DefaultOrder queued = new DefaultOrder(0, Order.Builder.DFS, true, 2);
+			final MazeFuture future = factory.orderAsync(queued);
+			assertEquals(2, factory.getPendingOrders().size());
+			assertTrue(future.cancel(true));
+			assertCancelled(future);
+			assertEquals(1, factory.getPendingOrders().size());
+			running.release();
+			factory.waitTillDelivered();
+			assertNull(queued.getMaze());
+		} finally {
+			factory.shutdown();
+		}
+	}
+
+	@Test
+	public void factoryCancelCompletesWithCancellation() throws Exception {
+		final MazeFactory factory = new MazeFactory();
+		final BlockingOrder order = new BlockingOrder(1);
+		final MazeFuture future = factory.orderAsync(order);
+		order.awaitStarted();
+		factory.cancel();
+		assertCancelled(future);
+	}
+
+	@Test
+	public void factoryCancelCompletesWithCancellationInPooledMode() throws Exception {
+		final MazeFactory factory = new MazeFactory(1, 1);
+		try {
+			final BlockingOrder order = new BlockingOrder(1);
+			final MazeFuture future = factory.orderAsync(order);
+			order.awaitStarted();
+			factory.cancel();
+			assertCancelled(future);
+		} finally {
+			factory.shutdown();
+		}
+	}
+
+	@Test
+	public void builderFailureCompletesExceptionally() throws Exception {
+		final MazeFuture future = new MazeFactory().orderAsync(new FailingOrder());
+		assertTrue(failureOf(future) instanceof IllegalStateException);
+	}
+
+	@Test
+	public void builderFailureCompletesExceptionallyInPooledMode() throws Exception {
+		final MazeFactory factory = new MazeFactory(1, 1);
+		try {
+			final MazeFuture future = factory.orderAsync(new FailingOrder());
+			assertTrue(failureOf(future) instanceof IllegalStateException);
+		} finally {
+			factory.shutdown();
+		}
+	}
+}
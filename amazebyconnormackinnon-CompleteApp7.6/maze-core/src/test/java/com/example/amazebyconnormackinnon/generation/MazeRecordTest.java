@@ -0,0 +1,92 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that a maze is restored from the snapshot of its record
+ * and that a snapshot is only used if it matches the hash,
+ * is named by all parameters of the order and is evicted beyond the budget.
+ */
+public class MazeRecordTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void restoresMazeFromSnapshot() throws IOException {
+		final DefaultOrder order = new DefaultOrder(4, Order.Builder.Kruskal, false, 17);
+		final Maze maze = TestMazes.delivered(4, Order.Builder.Kruskal, false, 17);
+		final MazeRecord record = new MazeRecord(order, maze);
+		final String snapshot = new File(folder.getRoot(), record.getSnapshotName()).getPath();
+		record.storeSnapshot(snapshot, maze);
+		final Maze restored = record.loadSnapshot(snapshot);
+		assertNotNull(restored);
+		assertTrue(record.matches(restored));
+		assertEquals(maze.getFloorplan(), restored.getFloorplan());
+		TestMazes.assertSameTree(maze.getRootnode(), restored.getRootnode());
+	}
+
+	@Test
+	public void rejectsSnapshotOfOtherMaze() throws IOException {
+		final DefaultOrder order = new DefaultOrder(4, Order.Builder.Kruskal, false, 17);
+		final Maze maze = TestMazes.delivered(4, Order.Builder.Kruskal, false, 17);
+		final MazeRecord record = new MazeRecord(order, maze);
+		final String snapshot = new File(folder.getRoot(), record.getSnapshotName()).getPath();
+		record.storeSnapshot(snapshot, maze);
+		final MazeRecord other = new MazeRecord(4, Order.Builder.Kruskal, false, 17, record.getHash() + 1);
+		assertNull(other.loadSnapshot(snapshot));
+	}
+
+	@Test
+	public void missingSnapshotGivesNull() {
+		final MazeRecord record = new MazeRecord(0, Order.Builder.DFS, true, 1, 0);
+		assertNull(record.loadSnapshot(null));
+		assertNull(record.loadSnapshot(folder.getRoot().getPath() + "/none.bin"));
+	}
+
+	@Test
+	public void snapshotNameHasAllParameters() {
+		final String name = new MazeRecord(4, Order.Builder.Kruskal, false, 17, 0).getSnapshotName();
+		assertEquals(name, new MazeRecord(4, Order.Builder.Kruskal, false, 17, 1).getSnapshotName());
+		assertNotEquals(name, new MazeRecord(5, Order.Builder.Kruskal, false, 17, 0).getSnapshotName());
+		assertNotEquals(name, new MazeRecord(4, Order.Builder.Prim, false, 17, 0).getSnapshotName());
+		assertNotEquals(name, new MazeRecord(4, Order.Builder.Kruskal, true, 17, 0).getSnapshotName());
+		assertNotEquals(name, new MazeRecord(4, Order.Builder.Kruskal, false, 18, 0).getSnapshotName());
+	}
+
+	@Test
+	public void evictsLeastRecentSnapshots() throws IOException {
+		final File oldest = snapshot(new MazeRecord(0, Order.Builder.DFS, true, 1, 0), 1000);
+		final File older = snapshot(new MazeRecord(1, Order.Builder.DFS, true, 1, 0), 2000);
+		final File newest = snapshot(new MazeRecord(2, Order.Builder.DFS, true, 1, 0), 3000);
+		final File other = folder.newFile("presets.db");
+		other.setLastModified(0);
+		assertEquals(0, MazeRecord.evictSnapshots(folder.getRoot(), 300));
+		assertEquals(2, MazeRecord.evictSnapshots(folder.getRoot(), 150));
+		assertFalse(oldest.exists());
+		assertFalse(older.exists());
+		assertTrue(newest.exists());
+		assertTrue(other.exists());
+	}
+
+	private File snapshot(MazeRecord record, long modified) throws IOException {
+		final File file = new File(folder.getRoot(), record.getSnapshotName());
+		try (FileOutputStream out = new FileOutputStream(file)) {
+			out.write(new byte[100]);
+		}
+		assertTrue(file.setLastModified(modified));
+		return file;
+	}
+}
@@ -0,0 +1,130 @@
+package com.example.amazebyconnormackinnon.generation;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * This class provides generated mazes for the tests.
+ * Mazes are generated in the calling thread, such that a test
+ * sees the exception of a builder that fails.
+ */
+final class TestMazes {
+	private TestMazes() {
+	}
+
+	/**
+	 * Creates a builder for the given parameters that has generated pathways,
+	 * distances and start and exit position, i.e. everything but the BSP tree.
+	 * @param skillLevel the skill level of the maze, {@code 0 <= skillLevel <= 15}
+	 * @param builder the builder algorithm
+	 * @param perfect true for a maze without rooms
+	 * @param seed the seed for the random number generator
+	 * @return the builder with the generated floorplan and distances
+	 * @throws InterruptedException if the thread is interrupted during the generation
+	 */
+	static MazeBuilder generated(int skillLevel, Order.Builder builder, boolean perfect, int seed) throws InterruptedException {
+		final DefaultOrder order = new DefaultOrder(skillLevel, builder, perfect, seed);
+		final MazeBuilder result = MazeFactory.createBuilder(order);
+		result.buildOrder(order);
+		result.floorplan.initialize();
+		result.generateRooms(); // places no rooms for a perfect maze
+		result.generate();
+		return result;
+	}
+	/**
+	 * Generates a complete maze, including its BSP tree, with a MazeFactory.
+	 * @param skillLevel the skill level of the maze, {@code 0 <= skillLevel <= 15}
+	 * @param builder the builder algorithm
+	 * @param perfect true for a maze without rooms
+	 * @param seed the seed for the random number generator
+	 * @return the delivered maze
+	 */
+	static Maze delivered(int skillLevel, Order.Builder builder, boolean perfect, int seed) {
+		final DefaultOrder order = new DefaultOrder(skillLevel, builder, perfect, seed);
+		final MazeFactory factory = new MazeFactory();
+		factory.order(order);
+		factory.waitTillDelivered();
+		if (null == order.getMaze())
+			throw new AssertionError("No maze delivered for " + builder + " at skill level " + skillLevel);
+		return order.getMaze();
+	}
+	/**
+	 * Creates a maze with random content for the file formats, its values need not
+	 * make sense for a game. Distances include Integer.MAX_VALUE, negative values
+	 * and large jumps between neighbors, one leaf has walls with negative extensions
+	 * and distances and flags set.
+	 * @param width the width of the maze, in the range of MazeConstants.SKILL_X
+	 * @param height the height of the maze, in the range of MazeConstants.SKILL_Y
+	 * @param storage the memory layout of the floorplan
+	 * @param cellMask the bits that cell values may have, at most 0xFFFF for Compact storage
+	 * @param seed the seed for the random values
+	 * @return the maze
+	 */
+	static Maze handcrafted(int width, int height, Floorplan.Storage storage, int cellMask, long seed) {
+		final Random random = new Random(seed);
+		final Floorplan cells = new Floorplan(width, height, storage);
+		final int[] row = new int[width];
+		for (int y = 0; y != height; y++) {
+			for (int x = 0; x != width; x++)
+				row[x] = random.nextInt() & cellMask;
+			cells.setRow(y, row);
+		}
+		final int[][] dists = new int[width][height];
+		for (int x = 0; x != width; x++) {
+			for (int y = 0; y != height; y++) {
+				switch (random.nextInt(4)) {
+				case 0: dists[x][y] = Integer.MAX_VALUE; break;
+				case 1: dists[x][y] = -random.nextInt(1000); break;
+				case 2: dists[x][y] = random.nextInt(); break;
+				default: dists[x][y] = x + y; break;
+				}
+			}
+		}
+		final List<Wall> left = new ArrayList<Wall>();
+		left.add(new Wall(0, 0, 1, 0, 7, 0));
+		left.add(new Wall(0, 1, 0, -1, -3, 1));
+		final Wall seen = new Wall(2, 1, -2, 0, -42, 0);
+		seen.setSeen(true);
+		seen.setPartition(true);
+		left.add(seen);
+		final List<Wall> right = new ArrayList<Wall>();
+		right.add(new Wall(width, 0, 0, height, Integer.MAX_VALUE, 1));
+		final MazeContainer maze = new MazeContainer();
+		maze.setWidth(width);
+		maze.setHeight(height);
+		maze.setFloorplan(cells);
+		maze.setMazedists(new Distance(dists));
+		maze.setRootnode(new BSPBranch(2, 0, 0, height, new BSPLeaf(left), new BSPLeaf(right)));
+		maze.setStartingPosition(width-1, height/2);
+		return maze;
+	}
+	/**
+	 * Asserts that two BSP trees have the same shape, the same partitions
+	 * in their branches and equal walls in the same order in their leaves.
+	 * @param expected the original tree
+	 * @param actual the tree, e.g. read back from file
+	 */
+	static void assertSameTree(BSPNode expected, BSPNode actual) {
+		assertEquals(expected.isIsleaf(), actual.isIsleaf());
+		if (expected.isIsleaf()) {
+			final List<Wall> walls = ((BSPLeaf) expected).getAllWalls();
+			final List<Wall> actualWalls = ((BSPLeaf) actual).getAllWalls();
+			assertEquals(walls.size(), actualWalls.size());
+			for (int i = 0; i != walls.size(); i++)
+				assertTrue("wall " + i + " differs", walls.get(i).equals(actualWalls.get(i)));
+			return;
+		}
+		final BSPBranch branch = (BSPBranch) expected;
+		final BSPBranch actualBranch = (BSPBranch) actual;
+		assertEquals(branch.getX(), actualBranch.getX());
+		assertEquals(branch.getY(), actualBranch.getY());
+		assertEquals(branch.getDx(), actualBranch.getDx());
+		assertEquals(branch.getDy(), actualBranch.getDy());
+		assertSameTree(branch.getLeftBranch(), actualBranch.getLeftBranch());
+		assertSameTree(branch.getRightBranch(), actualBranch.getRightBranch());
+	}
+}